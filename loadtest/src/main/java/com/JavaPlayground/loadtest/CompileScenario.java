@@ -0,0 +1,108 @@
+package com.JavaPlayground.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bursts of POST /api/compile: burst-size requests fired at once, a pause,
+ * then the next burst. Requests set bypassCache so every one is a real run.
+ */
+final class CompileScenario {
+
+    private final HttpClient client;
+    private final URI compileUri;
+    private final List<Program> corpus;
+    private final int bursts;
+    private final int burstSize;
+    private final Duration interval;
+    private final Duration timeout;
+    private final ScenarioStats stats = new ScenarioStats("compile");
+
+    CompileScenario(HttpClient client, URI compileUri, List<Program> corpus, int bursts, int burstSize,
+            Duration interval, Duration timeout) {
+        this.client = client;
+        this.compileUri = compileUri;
+        this.corpus = corpus;
+        this.bursts = bursts;
+        this.burstSize = burstSize;
+        this.interval = interval;
+        this.timeout = timeout;
+    }
+
+    ScenarioStats run() throws InterruptedException {
+        List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+        for (int burst = 0; burst < bursts; burst++) {
+            if (burst > 0) {
+                Thread.sleep(interval.toMillis());
+            }
+            for (int i = 0; i < burstSize; i++) {
+                inFlight.add(send(corpus.get((burst * burstSize + i) % corpus.size())));
+            }
+        }
+        for (CompletableFuture<Void> request : inFlight) {
+            try {
+                request.get(timeout.toMillis() * 2, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                // Already counted by send()
+            }
+        }
+        return stats;
+    }
+
+    private CompletableFuture<Void> send(Program program) {
+        String input = String.join("\n", program.getInput());
+        String body = "{\"code\":" + Json.quote(program.getCode()) + ",\"input\":" + Json.quote(input)
+                + ",\"bypassCache\":true}";
+        HttpRequest request = HttpRequest.newBuilder(compileUri)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        long start = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    stats.recordOutcome(classify(program, response, error));
+                    if (response != null) {
+                        stats.recordLatency("response", millis);
+                    }
+                    return null;
+                });
+    }
+
+    private ScenarioStats.Outcome classify(Program program, HttpResponse<String> response, Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            return cause instanceof HttpTimeoutException ? ScenarioStats.Outcome.TIMEOUT : ScenarioStats.Outcome.TRANSPORT;
+        }
+        if (response.statusCode() == 429) {
+            return ScenarioStats.Outcome.REJECTED;
+        }
+        if (response.statusCode() != 200) {
+            return ScenarioStats.Outcome.UNEXPECTED;
+        }
+        String json = response.body();
+        String errorText = Json.stringField(json, "error");
+        if (Json.stringField(json, "limitExceeded") != null) {
+            return ScenarioStats.Outcome.TIMEOUT;
+        }
+        Program.Expect actual;
+        if (Json.booleanField(json, "success")) {
+            actual = Program.Expect.SUCCESS;
+        } else if (errorText != null && errorText.startsWith("Compilation errors")) {
+            actual = Program.Expect.COMPILE_ERROR;
+        } else {
+            actual = Program.Expect.RUNTIME_ERROR;
+        }
+        return actual == program.getExpect() ? ScenarioStats.Outcome.OK : ScenarioStats.Outcome.UNEXPECTED;
+    }
+}
@@ -0,0 +1,69 @@
+package com.JavaPlayground.loadtest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/** Loads the sample programs listed in corpus/index.txt on the classpath. */
+final class Corpus {
+
+    private static final String INPUT_HEADER = "// input:";
+    private static final String EXPECT_HEADER = "// expect:";
+
+    private Corpus() {
+    }
+
+    static List<Program> load() throws IOException {
+        List<Program> programs = new ArrayList<>();
+        for (String line : read("index.txt").split("\n")) {
+            String name = line.trim();
+            if (name.isEmpty() || name.startsWith("#")) {
+                continue;
+            }
+            programs.add(parse(name, read(name)));
+        }
+        if (programs.isEmpty()) {
+            throw new IllegalStateException("corpus/index.txt lists no programs");
+        }
+        return programs;
+    }
+
+    private static Program parse(String name, String code) {
+        List<String> input = List.of();
+        Program.Expect expect = Program.Expect.SUCCESS;
+        for (String line : code.split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith(INPUT_HEADER)) {
+                input = Arrays.asList(trimmed.substring(INPUT_HEADER.length()).trim().split("\\|"));
+            } else if (trimmed.startsWith(EXPECT_HEADER)) {
+                expect = Program.Expect.valueOf(trimmed.substring(EXPECT_HEADER.length()).trim()
+                        .replace('-', '_').toUpperCase(Locale.ROOT));
+            } else if (!trimmed.startsWith("//")) {
+                break; // Headers only count before the code starts
+            }
+        }
+        return new Program(name, code, input, expect);
+    }
+
+    private static String read(String name) throws IOException {
+        try (InputStream in = Corpus.class.getResourceAsStream("/corpus/" + name)) {
+            if (in == null) {
+                throw new IOException("Missing corpus file: " + name);
+            }
+            StringBuilder sb = new StringBuilder();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    sb.append(line).append('\n');
+                }
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.JavaPlayground.loadtest;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Just enough JSON for this tool: quoting strings we send, and pulling single
+ * top-level fields out of the server's flat responses. Keeps the module free
+ * of dependencies.
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    static String quote(String s) {
+        if (s == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : s.toCharArray()) {
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    static boolean booleanField(String json, String name) {
+        return Pattern.compile("\"" + name + "\"\\s*:\\s*true").matcher(json).find();
+    }
+
+    /** First string value for the field, unescaped; null if absent or not a string. */
+    static String stringField(String json, String name) {
+        Matcher m = Pattern.compile("\"" + name + "\"\\s*:\\s*\"((?:[^\"\\\\]|\\\\.)*)\"").matcher(json);
+        if (!m.find()) {
+            return null;
+        }
+        return m.group(1).replace("\\n", "\n").replace("\\\"", "\"").replace("\\\\", "\\");
+    }
+
+    /** First numeric "value" in an actuator metrics response. */
+    static Double metricValue(String json) {
+        Matcher m = Pattern.compile("\"value\"\\s*:\\s*(-?[0-9.]+(?:[eE][-+]?[0-9]+)?)").matcher(json);
+        return m.find() ? Double.valueOf(m.group(1)) : null;
+    }
+}
@@ -0,0 +1,87 @@
+package com.JavaPlayground.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Entry point. Runs the terminal spike and the compile bursts at the same
+ * time, samples the server while they run, then writes the report.
+ *
+ *   mvn -q compile exec:java -Dloadtest.args="--sessions=60 --bursts=3"
+ *
+ * See README.md for the options.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        URI base = URI.create(options.getOrDefault("url", "http://localhost:8080").replaceAll("/+$", ""));
+        int sessions = Integer.parseInt(options.getOrDefault("sessions", "60"));
+        int bursts = Integer.parseInt(options.getOrDefault("bursts", "3"));
+        int burstSize = Integer.parseInt(options.getOrDefault("burst-size", "60"));
+        Duration burstInterval = Duration.ofSeconds(Long.parseLong(options.getOrDefault("burst-interval", "5")));
+        Duration timeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout", "30")));
+        Path out = Path.of(options.getOrDefault("out", "target/loadtest"));
+
+        List<Program> corpus = Corpus.load();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1) // Like browsers behind most proxies; also needed for WebSocket
+                .connectTimeout(timeout)
+                .build();
+        URI terminalUri = URI.create(base.toString().replaceFirst("^http", "ws") + "/terminal");
+
+        ServerMetrics metrics = new ServerMetrics(client, base);
+        boolean metricsOn = metrics.start();
+        System.out.println(metricsOn ? "Sampling server metrics" : "No server metrics: " + metrics.getUnavailableReason());
+
+        System.out.printf("Corpus: %d programs. %d terminal sessions, %d bursts of %d compiles against %s%n",
+                corpus.size(), sessions, bursts, burstSize, base);
+        CompletableFuture<ScenarioStats> terminal = CompletableFuture.supplyAsync(
+                () -> new TerminalScenario(client, terminalUri, corpus, sessions, timeout).run());
+        ScenarioStats compile = new CompileScenario(client, base.resolve("/api/compile"), corpus, bursts, burstSize,
+                burstInterval, timeout).run();
+        ScenarioStats terminalStats = terminal.get();
+        metrics.stop();
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("url", base.toString());
+        settings.put("sessions", sessions);
+        settings.put("bursts", bursts);
+        settings.put("burstSize", burstSize);
+        settings.put("burstIntervalSeconds", burstInterval.toSeconds());
+        settings.put("timeoutSeconds", timeout.toSeconds());
+        settings.put("corpusSize", corpus.size());
+        Report report = new Report(settings, List.of(terminalStats, compile), metricsOn ? metrics : null,
+                metrics.getUnavailableReason());
+        report.write(out);
+
+        for (ScenarioStats s : List.of(terminalStats, compile)) {
+            System.out.printf("%-8s %s error rate %.1f%% latency %s%n", s.getName(), s.getOutcomes(),
+                    Report.errorRate(s) * 100, s.summarize());
+        }
+        if (metricsOn) {
+            System.out.println("server   baseline " + metrics.getBaseline() + " peak " + metrics.getPeak());
+        }
+        System.out.println("Report: " + out.resolve("report.html").toAbsolutePath());
+    }
+
+    // --name=value pairs
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,39 @@
+package com.JavaPlayground.loadtest;
+
+import java.util.List;
+
+/** One sample program from the corpus, with the stdin it needs and how it should end. */
+final class Program {
+
+    enum Expect {
+        SUCCESS, COMPILE_ERROR, RUNTIME_ERROR
+    }
+
+    private final String name;
+    private final String code;
+    private final List<String> input;
+    private final Expect expect;
+
+    Program(String name, String code, List<String> input, Expect expect) {
+        this.name = name;
+        this.code = code;
+        this.input = input;
+        this.expect = expect;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getCode() {
+        return code;
+    }
+
+    List<String> getInput() {
+        return input;
+    }
+
+    Expect getExpect() {
+        return expect;
+    }
+}
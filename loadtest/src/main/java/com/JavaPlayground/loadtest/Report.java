@@ -0,0 +1,144 @@
+package com.JavaPlayground.loadtest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/** Writes report.json (for comparing runs) and report.html (for reading one). */
+final class Report {
+
+    private final Map<String, Object> settings;
+    private final List<ScenarioStats> scenarios;
+    private final ServerMetrics metrics; // Null if metrics were unavailable
+    private final String metricsNote;
+    private final Instant finishedAt = Instant.now();
+
+    Report(Map<String, Object> settings, List<ScenarioStats> scenarios, ServerMetrics metrics, String metricsNote) {
+        this.settings = settings;
+        this.scenarios = scenarios;
+        this.metrics = metrics;
+        this.metricsNote = metricsNote;
+    }
+
+    void write(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve("report.json"), json(), StandardCharsets.UTF_8);
+        Files.writeString(dir.resolve("report.html"), html(), StandardCharsets.UTF_8);
+    }
+
+    String json() {
+        StringBuilder sb = new StringBuilder("{\n");
+        sb.append("  \"finishedAt\": ").append(Json.quote(finishedAt.toString())).append(",\n");
+        sb.append("  \"settings\": {");
+        appendEntries(sb, settings);
+        sb.append("},\n  \"scenarios\": {\n");
+        for (int i = 0; i < scenarios.size(); i++) {
+            ScenarioStats s = scenarios.get(i);
+            sb.append("    ").append(Json.quote(s.getName())).append(": {\n");
+            sb.append("      \"total\": ").append(s.getTotal()).append(",\n");
+            sb.append("      \"outcomes\": {");
+            appendEntries(sb, s.getOutcomes());
+            sb.append("},\n      \"errorRate\": ").append(String.format(Locale.ROOT, "%.4f", errorRate(s))).append(",\n");
+            sb.append("      \"latencyMillis\": {");
+            int j = 0;
+            for (Map.Entry<String, Map<String, Long>> metric : s.summarize().entrySet()) {
+                sb.append(j++ > 0 ? ", " : "").append(Json.quote(metric.getKey())).append(": {");
+                appendEntries(sb, metric.getValue());
+                sb.append('}');
+            }
+            sb.append("}\n    }").append(i < scenarios.size() - 1 ? "," : "").append('\n');
+        }
+        sb.append("  },\n  \"server\": ");
+        if (metrics == null) {
+            sb.append("{\"unavailable\": ").append(Json.quote(metricsNote)).append('}');
+        } else {
+            sb.append("{\"baseline\": {");
+            appendEntries(sb, metrics.getBaseline());
+            sb.append("}, \"peak\": {");
+            appendEntries(sb, metrics.getPeak());
+            sb.append("}}");
+        }
+        return sb.append("\n}\n").toString();
+    }
+
+    String html() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>Load test report</title><style>")
+                .append("body{font-family:sans-serif;margin:2em;color:#222}table{border-collapse:collapse;margin:1em 0}")
+                .append("td,th{border:1px solid #ccc;padding:4px 10px;text-align:right}th{background:#f3f3f3}")
+                .append("td:first-child,th:first-child{text-align:left}.bad{color:#b00020;font-weight:bold}")
+                .append("</style></head><body>");
+        sb.append("<h1>Load test report</h1><p>").append(escape(finishedAt.toString())).append("</p><p>");
+        settings.forEach((k, v) -> sb.append(escape(k)).append(" = <b>").append(escape(String.valueOf(v))).append("</b>&nbsp; "));
+        sb.append("</p>");
+
+        for (ScenarioStats s : scenarios) {
+            sb.append("<h2>").append(escape(s.getName())).append("</h2><table><tr>");
+            s.getOutcomes().keySet().forEach(o -> sb.append("<th>").append(o).append("</th>"));
+            sb.append("<th>error rate</th></tr><tr>");
+            s.getOutcomes().values().forEach(n -> sb.append("<td>").append(n).append("</td>"));
+            double rate = errorRate(s);
+            sb.append("<td class=\"").append(rate > 0 ? "bad" : "").append("\">")
+                    .append(String.format(Locale.ROOT, "%.1f%%", rate * 100)).append("</td></tr></table>");
+
+            sb.append("<table><tr><th>latency (ms)</th><th>count</th><th>mean</th><th>p50</th><th>p90</th>")
+                    .append("<th>p95</th><th>p99</th><th>max</th></tr>");
+            s.summarize().forEach((metric, stats) -> {
+                sb.append("<tr><td>").append(escape(metric)).append("</td>");
+                stats.values().forEach(v -> sb.append("<td>").append(v).append("</td>"));
+                sb.append("</tr>");
+            });
+            sb.append("</table>");
+        }
+
+        sb.append("<h2>server</h2>");
+        if (metrics == null) {
+            sb.append("<p class=\"bad\">").append(escape(metricsNote)).append("</p>");
+        } else {
+            sb.append("<table><tr><th>metric</th><th>baseline</th><th>peak</th></tr>");
+            metrics.getPeak().forEach((name, peak) -> sb.append("<tr><td>").append(escape(name)).append("</td><td>")
+                    .append(format(name, metrics.getBaseline().get(name))).append("</td><td>")
+                    .append(format(name, peak)).append("</td></tr>"));
+            sb.append("</table>");
+        }
+        return sb.append("</body></html>\n").toString();
+    }
+
+    /** Everything that isn't OK counts, except rate limiting, which is reported on its own. */
+    static double errorRate(ScenarioStats s) {
+        Map<ScenarioStats.Outcome, Integer> outcomes = s.getOutcomes();
+        int total = s.getTotal() - outcomes.get(ScenarioStats.Outcome.REJECTED);
+        int failed = total - outcomes.get(ScenarioStats.Outcome.OK);
+        return total == 0 ? 0 : (double) failed / total;
+    }
+
+    private static void appendEntries(StringBuilder sb, Map<?, ?> map) {
+        int i = 0;
+        for (Map.Entry<?, ?> e : map.entrySet()) {
+            sb.append(i++ > 0 ? ", " : "").append(Json.quote(String.valueOf(e.getKey()))).append(": ");
+            Object v = e.getValue();
+            sb.append(v instanceof Number ? number((Number) v) : Json.quote(String.valueOf(v)));
+        }
+    }
+
+    private static String number(Number n) {
+        double d = n.doubleValue();
+        return d == Math.rint(d) ? String.valueOf((long) d) : String.valueOf(d);
+    }
+
+    private static String format(String metric, Double value) {
+        if (value == null) {
+            return "";
+        }
+        return metric.endsWith("Bytes") ? String.format(Locale.ROOT, "%.1f MB", value / (1024 * 1024)) : number(value);
+    }
+
+    private static String escape(String s) {
+        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
@@ -0,0 +1,76 @@
+package com.JavaPlayground.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Latencies and outcome counts for one scenario. Thread-safe: every simulated client records here. */
+final class ScenarioStats {
+
+    enum Outcome {
+        OK,          // Finished the way the corpus says it should
+        UNEXPECTED,  // Finished, but not as expected (wrong exit code, server error...)
+        TIMEOUT,     // Stopped by an execution limit, or the client gave up waiting
+        REJECTED,    // Rate limited (HTTP 429 or ERROR:Too many...)
+        TRANSPORT    // Could not connect or the connection broke
+    }
+
+    private final String name;
+    private final Map<String, List<Long>> latencies = new LinkedHashMap<>(); // Metric -> millis
+    private final Map<Outcome, Integer> outcomes = new EnumMap<>(Outcome.class);
+
+    ScenarioStats(String name) {
+        this.name = name;
+        for (Outcome o : Outcome.values()) {
+            outcomes.put(o, 0);
+        }
+    }
+
+    String getName() {
+        return name;
+    }
+
+    synchronized void recordLatency(String metric, long millis) {
+        latencies.computeIfAbsent(metric, k -> new ArrayList<>()).add(millis);
+    }
+
+    synchronized void recordOutcome(Outcome outcome) {
+        outcomes.merge(outcome, 1, Integer::sum);
+    }
+
+    synchronized Map<Outcome, Integer> getOutcomes() {
+        return new EnumMap<>(outcomes);
+    }
+
+    synchronized int getTotal() {
+        return outcomes.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /** Per metric: count, mean, p50, p90, p95, p99 and max, in milliseconds. */
+    synchronized Map<String, Map<String, Long>> summarize() {
+        Map<String, Map<String, Long>> summary = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Long>> entry : latencies.entrySet()) {
+            List<Long> sorted = new ArrayList<>(entry.getValue());
+            Collections.sort(sorted);
+            Map<String, Long> stats = new LinkedHashMap<>();
+            stats.put("count", (long) sorted.size());
+            stats.put("mean", Math.round(sorted.stream().mapToLong(Long::longValue).average().orElse(0)));
+            stats.put("p50", percentile(sorted, 50));
+            stats.put("p90", percentile(sorted, 90));
+            stats.put("p95", percentile(sorted, 95));
+            stats.put("p99", percentile(sorted, 99));
+            stats.put("max", sorted.get(sorted.size() - 1));
+            summary.put(entry.getKey(), stats);
+        }
+        return summary;
+    }
+
+    // Nearest-rank percentile
+    private static long percentile(List<Long> sorted, int p) {
+        int rank = (int) Math.ceil(p / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1));
+    }
+}
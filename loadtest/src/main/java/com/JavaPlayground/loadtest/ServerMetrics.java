@@ -0,0 +1,113 @@
+package com.JavaPlayground.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Samples the server's actuator metrics while the test runs and keeps the
+ * baseline and peak of each. Needs the server's "loadtest" profile, which is
+ * what exposes /actuator/metrics.
+ */
+final class ServerMetrics implements Runnable {
+
+    // Report label, actuator metric path
+    private static final String[][] METRICS = {
+            { "liveThreads", "jvm.threads.live" },
+            { "heapUsedBytes", "jvm.memory.used?tag=area:heap" },
+            { "childProcesses", "playground.execution.processes" } };
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(250);
+
+    private final HttpClient client;
+    private final URI base;
+    private final Map<String, Double> baseline = new LinkedHashMap<>();
+    private final Map<String, Double> peak = new LinkedHashMap<>();
+    private volatile boolean running = true;
+    private volatile String unavailableReason;
+
+    ServerMetrics(HttpClient client, URI base) {
+        this.client = client;
+        this.base = base;
+    }
+
+    /** Takes the baseline. Returns false (and the report says why) if metrics aren't exposed. */
+    boolean start() {
+        Map<String, Double> sample = sample();
+        if (sample == null) {
+            return false;
+        }
+        baseline.putAll(sample);
+        peak.putAll(sample);
+        Thread poller = new Thread(this, "server-metrics");
+        poller.setDaemon(true);
+        poller.start();
+        return true;
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            } catch (InterruptedException e) {
+                return;
+            }
+            Map<String, Double> sample = sample();
+            if (sample != null) {
+                synchronized (peak) {
+                    sample.forEach((name, value) -> peak.merge(name, value, Math::max));
+                }
+            }
+        }
+    }
+
+    private Map<String, Double> sample() {
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (String[] metric : METRICS) {
+            try {
+                HttpRequest request = HttpRequest.newBuilder(base.resolve("/actuator/metrics/" + metric[1]))
+                        .timeout(Duration.ofSeconds(2))
+                        .GET()
+                        .build();
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                Double value = response.statusCode() == 200 ? Json.metricValue(response.body()) : null;
+                if (value == null) {
+                    unavailableReason = "GET /actuator/metrics/" + metric[1] + " returned HTTP "
+                            + response.statusCode() + " (start the server with the \"loadtest\" profile)";
+                    return null;
+                }
+                values.put(metric[0], value);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (Exception e) {
+                unavailableReason = "Metrics request failed: " + e;
+                return null;
+            }
+        }
+        return values;
+    }
+
+    String getUnavailableReason() {
+        return unavailableReason;
+    }
+
+    Map<String, Double> getBaseline() {
+        return baseline;
+    }
+
+    Map<String, Double> getPeak() {
+        synchronized (peak) {
+            return new LinkedHashMap<>(peak);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.JavaPlayground.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * N students with the terminal open, all pressing Run at the same moment:
+ * every socket connects first, then RUN: goes out on all of them together.
+ * Input is typed once the program prints its first output (the prompt).
+ */
+final class TerminalScenario {
+
+    private final HttpClient client;
+    private final URI terminalUri;
+    private final List<Program> corpus;
+    private final int sessions;
+    private final Duration timeout;
+    private final ScenarioStats stats = new ScenarioStats("terminal");
+
+    TerminalScenario(HttpClient client, URI terminalUri, List<Program> corpus, int sessions, Duration timeout) {
+        this.client = client;
+        this.terminalUri = terminalUri;
+        this.corpus = corpus;
+        this.sessions = sessions;
+        this.timeout = timeout;
+    }
+
+    ScenarioStats run() {
+        // 1. Connect everyone
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < sessions; i++) {
+            Student student = new Student(corpus.get(i % corpus.size()));
+            long start = System.nanoTime();
+            student.socket = client.newWebSocketBuilder()
+                    .connectTimeout(timeout)
+                    .buildAsync(terminalUri, student)
+                    .whenComplete((ws, e) -> {
+                        if (e == null) {
+                            stats.recordLatency("connect", millisSince(start));
+                        }
+                    });
+            students.add(student);
+        }
+        List<Student> connected = new ArrayList<>();
+        for (Student student : students) {
+            try {
+                student.ws = student.socket.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+                connected.add(student);
+            } catch (Exception e) {
+                stats.recordOutcome(ScenarioStats.Outcome.TRANSPORT);
+            }
+        }
+
+        // 2. Everyone presses Run
+        for (Student student : connected) {
+            student.start = System.nanoTime();
+            student.ws.sendText("RUN:" + student.program.getCode(), true);
+        }
+
+        // 3. Wait for every program to finish (or give up on it)
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (Student student : connected) {
+            long remaining = Math.max(1, deadline - System.nanoTime());
+            try {
+                stats.recordOutcome(student.result.get(remaining, TimeUnit.NANOSECONDS));
+            } catch (Exception e) {
+                stats.recordOutcome(ScenarioStats.Outcome.TIMEOUT);
+            }
+            // STOP so the program doesn't linger through the reconnect grace period
+            student.ws.sendText("STOP", true)
+                    .thenCompose(ws -> ws.sendClose(WebSocket.NORMAL_CLOSURE, "done"));
+        }
+        return stats;
+    }
+
+    private static long millisSince(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    // --- One simulated student on one socket ---
+    private final class Student implements WebSocket.Listener {
+
+        private final Program program;
+        private final CompletableFuture<ScenarioStats.Outcome> result = new CompletableFuture<>();
+        private final StringBuilder partial = new StringBuilder();
+        private CompletableFuture<WebSocket> socket;
+        private volatile WebSocket ws;
+        private volatile long start;
+        private boolean sawOutput;
+
+        Student(Program program) {
+            this.program = program;
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            partial.append(data);
+            if (last) {
+                String message = partial.toString();
+                partial.setLength(0);
+                handle(webSocket, message);
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        private void handle(WebSocket webSocket, String message) {
+            if (message.startsWith("OUTPUT:")) {
+                if (!sawOutput) {
+                    sawOutput = true;
+                    stats.recordLatency("first-output", millisSince(start));
+                    // A WebSocket allows one outstanding send, so the lines go one after another
+                    CompletableFuture<WebSocket> typing = CompletableFuture.completedFuture(webSocket);
+                    for (String line : program.getInput()) {
+                        typing = typing.thenCompose(ws -> ws.sendText("INPUT:" + line, true));
+                    }
+                }
+            } else if (message.startsWith("EXIT:Program stopped")) {
+                stats.recordLatency("exit", millisSince(start));
+                result.complete(ScenarioStats.Outcome.TIMEOUT); // Hit a CPU, wall-clock or idle limit
+            } else if (message.startsWith("EXIT:")) {
+                stats.recordLatency("exit", millisSince(start));
+                boolean clean = message.trim().endsWith("exit code 0");
+                Program.Expect expect = clean ? Program.Expect.SUCCESS : Program.Expect.RUNTIME_ERROR;
+                result.complete(expect == program.getExpect()
+                        ? ScenarioStats.Outcome.OK : ScenarioStats.Outcome.UNEXPECTED);
+            } else if (message.startsWith("ERROR:")) {
+                stats.recordLatency("exit", millisSince(start));
+                result.complete(classifyError(message));
+            }
+        }
+
+        private ScenarioStats.Outcome classifyError(String message) {
+            if (message.startsWith("ERROR:Compilation Failed")) {
+                return program.getExpect() == Program.Expect.COMPILE_ERROR
+                        ? ScenarioStats.Outcome.OK : ScenarioStats.Outcome.UNEXPECTED;
+            }
+            if (message.contains("Too many") || message.contains("quota")) {
+                return ScenarioStats.Outcome.REJECTED;
+            }
+            if (message.toLowerCase().contains("timed out")) {
+                return ScenarioStats.Outcome.TIMEOUT;
+            }
+            return ScenarioStats.Outcome.UNEXPECTED;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            result.complete(ScenarioStats.Outcome.TRANSPORT);
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            result.complete(ScenarioStats.Outcome.TRANSPORT); // No-op if the run already finished
+            return null;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+import java.util.*;
+
+public class Main {
+    public static void main(String[] args) {
+        Map<String, Integer> counts = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200000; i++) {
+            counts.merge("key" + random.nextInt(1000), 1, Integer::sum);
+        }
+        List<Map.Entry<String, Integer>> top = new ArrayList<>(counts.entrySet());
+        top.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        System.out.println(top.subList(0, 5));
+    }
+}
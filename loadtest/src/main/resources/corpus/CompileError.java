@@ -0,0 +1,7 @@
+// expect: compile-error
+public class Main {
+    public static void main(String[] args) {
+        int x = "not a number";
+        System.out.println(x)
+    }
+}
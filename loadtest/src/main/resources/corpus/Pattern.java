@@ -0,0 +1,13 @@
+// input: 12
+import java.util.Scanner;
+
+public class Main {
+    public static void main(String[] args) {
+        Scanner sc = new Scanner(System.in);
+        System.out.print("Rows: ");
+        int rows = sc.nextInt();
+        for (int i = 1; i <= rows; i++) {
+            System.out.println(" ".repeat(rows - i) + "*".repeat(2 * i - 1));
+        }
+    }
+}
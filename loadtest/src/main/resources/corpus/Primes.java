@@ -0,0 +1,18 @@
+public class Main {
+    public static void main(String[] args) {
+        int count = 0;
+        for (int n = 2; count < 20000; n++) {
+            boolean prime = true;
+            for (int d = 2; (long) d * d <= n; d++) {
+                if (n % d == 0) {
+                    prime = false;
+                    break;
+                }
+            }
+            if (prime) {
+                count++;
+            }
+        }
+        System.out.println("20000 primes found");
+    }
+}
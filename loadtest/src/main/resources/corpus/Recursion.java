@@ -0,0 +1,11 @@
+public class Main {
+    static long fib(int n) {
+        return n < 2 ? n : fib(n - 1) + fib(n - 2);
+    }
+
+    public static void main(String[] args) {
+        for (int i = 20; i <= 30; i++) {
+            System.out.println("fib(" + i + ") = " + fib(i));
+        }
+    }
+}
@@ -0,0 +1,8 @@
+// expect: runtime-error
+public class Main {
+    public static void main(String[] args) {
+        int[] values = new int[3];
+        System.out.println("About to go out of bounds");
+        System.out.println(values[3]);
+    }
+}
@@ -0,0 +1,10 @@
+import java.util.Arrays;
+import java.util.Random;
+
+public class Main {
+    public static void main(String[] args) {
+        int[] data = new Random(7).ints(2_000_000).toArray();
+        Arrays.sort(data);
+        System.out.println("min=" + data[0] + " max=" + data[data.length - 1]);
+    }
+}
@@ -0,0 +1,9 @@
+public class Main {
+    public static void main(String[] args) {
+        String s = "";
+        for (int i = 0; i < 5000; i++) {
+            s += i % 10; // The classic quadratic mistake
+        }
+        System.out.println(s.length());
+    }
+}
@@ -0,0 +1,41 @@
+#!/usr/bin/env bash
+# Measures what a page load costs on the wire: transferred bytes and time per
+# asset, once uncompressed and once with br/gzip, plus a conditional reload.
+#
+#   ./scripts/measure-assets.sh [base-url]      (default http://localhost:8080)
+#
+# Run it against a build before and after an asset change and compare.
+# For time-to-interactive, run Lighthouse against the same URL, throttled like
+# a school network:  npx lighthouse http://localhost:8080 --throttling-method=devtools --only-categories=performance
+set -euo pipefail
+
+BASE="${1:-http://localhost:8080}"
+
+# Resolve the asset URLs the page actually references (fingerprinted after the build)
+PAGE=$(curl -s "$BASE/index.html")
+ASSETS=("/index.html" "/login.html")
+while read -r url; do
+  ASSETS+=("$url")
+done < <(echo "$PAGE" | grep -oE '(href|src)="/?(css|js|img)/[^"]+"' | sed -E 's/.*="\/?/\//; s/"$//')
+
+printf "%-52s %10s %10s %10s %9s %s\n" "asset" "identity" "gzip" "br" "time(s)" "cache-control"
+total_plain=0; total_best=0
+for asset in "${ASSETS[@]}"; do
+  plain=$(curl -s -o /dev/null -w '%{size_download}' "$BASE$asset")
+  gz=$(curl -s -o /dev/null -H 'Accept-Encoding: gzip' -w '%{size_download}' "$BASE$asset")
+  br=$(curl -s -o /dev/null -H 'Accept-Encoding: br' -w '%{size_download}' "$BASE$asset")
+  time=$(curl -s -o /dev/null -H 'Accept-Encoding: br, gzip' -w '%{time_total}' "$BASE$asset")
+  cc=$(curl -sI "$BASE$asset" | tr -d '\r' | grep -i '^cache-control:' | cut -d' ' -f2- || true)
+  best=$(( br < gz ? br : gz ))
+  total_plain=$((total_plain + plain)); total_best=$((total_best + best))
+  printf "%-52s %10s %10s %10s %9s %s\n" "$asset" "$plain" "$gz" "$br" "$time" "${cc:--}"
+done
+echo
+echo "First load:  ${total_plain} bytes uncompressed, ${total_best} bytes compressed"
+
+# Repeat visit: the HTML revalidates (304), fingerprinted assets come from cache
+etag=$(curl -sI "$BASE/index.html" | tr -d '\r' | grep -i '^etag:' | cut -d' ' -f2- || true)
+if [ -n "$etag" ]; then
+  status=$(curl -s -o /dev/null -w '%{http_code}' -H "If-None-Match: $etag" "$BASE/index.html")
+  echo "Repeat load: index.html revalidation -> HTTP $status"
+fi
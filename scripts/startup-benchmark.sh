@@ -0,0 +1,82 @@
+#!/usr/bin/env bash
+# Startup time and first-request latency of the app jar, in four modes:
+#   jar        java -jar target/*.jar (what the old Dockerfile ran)
+#   extracted  unpacked jar + lib/ (jarmode=tools extract)
+#   aot        extracted + -Dspring.aot.enabled=true
+#   aot+cds    aot + the AppCDS archive from a training run (what the Dockerfile runs)
+#
+#   ./mvnw -Pfast-start -DskipTests package
+#   ./scripts/startup-benchmark.sh [runs]       (default 5 per mode)
+#
+# The app starts with your usual configuration (secrets.properties or env), so
+# it needs the database. Port 8080 must be free. Times are medians over the runs:
+#   started   "Started JavaPlayGroundApplication in Xs" as logged by Spring
+#   ready     JVM launch until the first HTTP response
+#   page      GET /index.html on the fresh JVM
+#   compile   POST /api/compile (hello world) on the fresh JVM, javac included
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT=8080
+BASE="http://localhost:$PORT"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+WORK="$ROOT/target/startup-benchmark"
+JAR=$(ls "$ROOT"/target/*.jar | grep -v '\.original$' | head -1)
+
+[ -f "$JAR" ] || { echo "No jar in target/, build it first: ./mvnw -Pfast-start -DskipTests package"; exit 1; }
+unzip -l "$JAR" | grep -q 'JavaPlayGroundApplication__ApplicationContextInitializer' \
+  || echo "warning: jar was built without -Pfast-start, the aot modes will fail" >&2
+
+rm -rf "$WORK" && mkdir -p "$WORK"
+java -Djarmode=tools -jar "$JAR" extract --destination "$WORK/app" > /dev/null
+APP="$WORK/app/$(basename "$JAR")"
+
+echo "Training run for the CDS archive..."
+java -XX:ArchiveClassesAtExit="$WORK/app.jsa" -Dspring.aot.enabled=true \
+  -Dspring.context.exit=onRefresh -Dspring.profiles.active=training -jar "$APP" > "$WORK/training.log" 2>&1
+
+now_ms() { date +%s%3N; }
+
+median() { sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2 }'; }
+
+# One cold start: prints "started_ms ready_ms page_ms compile_ms"
+run_once() {
+  local log="$WORK/run.log"
+  local start; start=$(now_ms)
+  java "$@" > "$log" 2>&1 &
+  local pid=$!
+  until [ "$(curl -s -o /dev/null -w '%{http_code}' "$BASE/index.html" || true)" != "000" ]; do
+    kill -0 "$pid" 2> /dev/null || { echo "App exited during startup, see $log" >&2; exit 1; }
+    sleep 0.05
+  done
+  local ready=$(( $(now_ms) - start ))
+  local page compile
+  page=$(curl -s -o /dev/null -w '%{time_total}' "$BASE/index.html")
+  compile=$(curl -s -o /dev/null -w '%{time_total}' -H 'Content-Type: application/json' \
+    -d '{"code":"public class Main { public static void main(String[] a) { System.out.println(42); } }","bypassCache":true}' \
+    "$BASE/api/compile")
+  local started
+  started=$(grep -oE 'Started JavaPlayGroundApplication in [0-9.]+' "$log" | grep -oE '[0-9.]+$' || echo 0)
+  kill "$pid"; wait "$pid" 2> /dev/null || true
+  awk -v s="$started" -v r="$ready" -v p="$page" -v c="$compile" \
+    'BEGIN { printf "%d %d %d %d\n", s * 1000, r, p * 1000, c * 1000 }'
+}
+
+bench() {
+  local name="$1"; shift
+  local results="$WORK/$name.txt"
+  : > "$results"
+  for _ in $(seq "$RUNS"); do
+    run_once "$@" >> "$results"
+  done
+  printf "%-10s %10s %10s %10s %10s\n" "$name" \
+    "$(cut -d' ' -f1 "$results" | median)" "$(cut -d' ' -f2 "$results" | median)" \
+    "$(cut -d' ' -f3 "$results" | median)" "$(cut -d' ' -f4 "$results" | median)"
+}
+
+echo
+printf "%-10s %10s %10s %10s %10s   (ms, median of %s)\n" "mode" "started" "ready" "page" "compile" "$RUNS"
+bench jar       -jar "$JAR"
+bench extracted -jar "$APP"
+bench aot       -Dspring.aot.enabled=true -jar "$APP"
+bench aot+cds   -XX:SharedArchiveFile="$WORK/app.jsa" -Dspring.aot.enabled=true -jar "$APP"
@@ -0,0 +1,47 @@
+package com.JavaPlayground.analytics;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free bounded queue: ConcurrentLinkedQueue does the (CAS-based) linking,
+ * an AtomicInteger reserves a slot first so the size can never exceed the
+ * capacity. Producers never block; a full queue just refuses the element.
+ */
+class BoundedEventQueue<E> {
+
+    private final ConcurrentLinkedQueue<E> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+
+    BoundedEventQueue(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /** Returns false (and keeps nothing) when the queue is full. */
+    boolean offer(E element) {
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            return false;
+        }
+        queue.offer(element);
+        return true;
+    }
+
+    /** Moves up to max elements into the list; returns how many were moved. */
+    int drainTo(List<E> target, int max) {
+        int moved = 0;
+        E element;
+        while (moved < max && (element = queue.poll()) != null) {
+            size.decrementAndGet();
+            target.add(element);
+            moved++;
+        }
+        return moved;
+    }
+
+    int size() {
+        return size.get();
+    }
+}
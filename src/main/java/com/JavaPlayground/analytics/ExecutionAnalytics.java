@@ -0,0 +1,80 @@
+package com.JavaPlayground.analytics;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.JavaPlayground.model.HourlyLoad;
+import com.JavaPlayground.model.SlowProgram;
+
+/** Aggregate queries over execution_events. Read-only, so they go to the replica when one is configured. */
+@Repository
+@Lazy
+@Transactional(readOnly = true)
+public class ExecutionAnalytics {
+
+    private final JdbcTemplate jdbc;
+
+    public ExecutionAnalytics(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** Runs per hour (UTC) over the last {@code hours}, oldest first. Cache hits count as runs but took no time. */
+    public List<HourlyLoad> hourlyLoad(int hours) {
+        return jdbc.query("SELECT DATE_FORMAT(occurred_at, '%Y-%m-%d %H:00') AS hour, "
+                + "COUNT(*) AS runs, "
+                + "SUM(CASE WHEN outcome IN ('ok', 'cached') THEN 0 ELSE 1 END) AS failures, "
+                + "SUM(CASE WHEN outcome LIKE 'limit_%' THEN 1 ELSE 0 END) AS limit_kills, "
+                + "SUM(CASE WHEN outcome = 'cached' THEN 1 ELSE 0 END) AS cache_hits, "
+                + "COUNT(DISTINCT user_key) AS users, "
+                + "SUM(cpu_millis) AS cpu_millis, "
+                + "AVG(CASE WHEN outcome <> 'cached' THEN wall_millis END) AS avg_wall_millis "
+                + "FROM execution_events WHERE occurred_at >= ? "
+                + "GROUP BY hour ORDER BY hour",
+                (rs, i) -> {
+                    HourlyLoad load = new HourlyLoad();
+                    load.setHour(rs.getString("hour"));
+                    load.setRuns(rs.getLong("runs"));
+                    load.setFailures(rs.getLong("failures"));
+                    load.setLimitKills(rs.getLong("limit_kills"));
+                    load.setCacheHits(rs.getLong("cache_hits"));
+                    load.setUsers(rs.getLong("users"));
+                    load.setCpuMillis(rs.getLong("cpu_millis"));
+                    load.setAvgWallMillis(Math.round(rs.getDouble("avg_wall_millis")));
+                    return load;
+                },
+                since(hours));
+    }
+
+    /** Programs (grouped by code hash) with the highest CPU time per run over the last {@code hours}. */
+    public List<SlowProgram> slowest(int hours, int limit) {
+        return jdbc.query("SELECT code_hash, COUNT(*) AS runs, MAX(code_chars) AS code_chars, "
+                + "AVG(cpu_millis) AS avg_cpu_millis, MAX(cpu_millis) AS max_cpu_millis, "
+                + "MAX(wall_millis) AS max_wall_millis, "
+                + "SUM(CASE WHEN outcome LIKE 'limit_%' THEN 1 ELSE 0 END) AS limit_kills "
+                + "FROM execution_events WHERE occurred_at >= ? AND exit_code IS NOT NULL "
+                + "GROUP BY code_hash ORDER BY avg_cpu_millis DESC LIMIT ?",
+                (rs, i) -> {
+                    SlowProgram program = new SlowProgram();
+                    program.setCodeHash(rs.getString("code_hash"));
+                    program.setRuns(rs.getLong("runs"));
+                    program.setCodeChars(rs.getInt("code_chars"));
+                    program.setAvgCpuMillis(Math.round(rs.getDouble("avg_cpu_millis")));
+                    program.setMaxCpuMillis(rs.getLong("max_cpu_millis"));
+                    program.setMaxWallMillis(rs.getLong("max_wall_millis"));
+                    program.setLimitKills(rs.getLong("limit_kills"));
+                    return program;
+                },
+                since(hours), limit);
+    }
+
+    // occurred_at is UTC (see ExecutionEventLog), so the bound must be too
+    private static LocalDateTime since(int hours) {
+        return LocalDateTime.now(ZoneOffset.UTC).minusHours(hours);
+    }
+}
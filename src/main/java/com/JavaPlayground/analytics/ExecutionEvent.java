@@ -0,0 +1,110 @@
+package com.JavaPlayground.analytics;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Locale;
+
+import com.JavaPlayground.execution.ExecutionOutcome;
+
+/** One finished (or failed) execution, as written to the execution_events table. */
+public class ExecutionEvent {
+
+    // Where the run came from
+    public static final String SOURCE_COMPILE = "compile";
+    public static final String SOURCE_TERMINAL = "terminal";
+    public static final String SOURCE_BENCHMARK = "benchmark";
+
+    private final Instant occurredAt = Instant.now();
+    private final String source;
+    private final String userKey; // RateLimitKeys value ("user:..." or "ip:..."), may be null
+    private final String outcome; // ok, runtime_error, compile_error, failure, cached, or limit_cpu/limit_wall_clock/limit_idle
+    private final Integer exitCode;
+    private final long wallMillis;
+    private final long cpuMillis;
+    private final String codeHash; // Groups runs of the same program without storing the code
+    private final int codeChars;
+
+    private ExecutionEvent(String source, String userKey, String code, String outcome, Integer exitCode,
+            long wallMillis, long cpuMillis) {
+        this.source = source;
+        this.userKey = userKey;
+        this.outcome = outcome;
+        this.exitCode = exitCode;
+        this.wallMillis = wallMillis;
+        this.cpuMillis = cpuMillis;
+        this.codeHash = sha256(code == null ? "" : code);
+        this.codeChars = code == null ? 0 : code.length();
+    }
+
+    public static ExecutionEvent finished(String source, String userKey, String code, ExecutionOutcome o) {
+        String outcome;
+        if (o.getLimitExceeded() != null) {
+            outcome = "limit_" + o.getLimitExceeded().name().toLowerCase(Locale.ROOT);
+        } else {
+            outcome = o.getExitCode() == 0 ? "ok" : "runtime_error";
+        }
+        return new ExecutionEvent(source, userKey, code, outcome, o.getExitCode(), o.getElapsedMillis(),
+                o.getCpuMillis());
+    }
+
+    public static ExecutionEvent compileError(String source, String userKey, String code) {
+        return new ExecutionEvent(source, userKey, code, "compile_error", null, 0, 0);
+    }
+
+    public static ExecutionEvent failure(String source, String userKey, String code) {
+        return new ExecutionEvent(source, userKey, code, "failure", null, 0, 0);
+    }
+
+    /** Answered from the result cache: a request, but no program actually ran. */
+    public static ExecutionEvent cached(String source, String userKey, String code) {
+        return new ExecutionEvent(source, userKey, code, "cached", null, 0, 0);
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public String getUserKey() {
+        return userKey;
+    }
+
+    public String getOutcome() {
+        return outcome;
+    }
+
+    public Integer getExitCode() {
+        return exitCode;
+    }
+
+    public long getWallMillis() {
+        return wallMillis;
+    }
+
+    public long getCpuMillis() {
+        return cpuMillis;
+    }
+
+    public String getCodeHash() {
+        return codeHash;
+    }
+
+    public int getCodeChars() {
+        return codeChars;
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every JVM ships SHA-256
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.JavaPlayground.analytics;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind log of executions. {@link #record} only enqueues, so the
+ * request thread never waits on the database; a background thread
+ * batch-inserts whatever has queued up. When the queue is full (database slow
+ * or down) events are dropped and counted rather than slowing down runs.
+ *
+ * With MySQL, add rewriteBatchedStatements=true to the JDBC URL so a batch
+ * goes over the wire as one multi-row INSERT.
+ *
+ * occurred_at holds UTC wall-clock time. It is bound as a LocalDateTime, which
+ * drivers store as-is, where a Timestamp would be shifted into the JVM's (or
+ * the connection's) time zone.
+ */
+@Component
+public class ExecutionEventLog {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutionEventLog.class);
+
+    private static final String INSERT = "INSERT INTO execution_events "
+            + "(occurred_at, source, user_key, outcome, exit_code, wall_millis, cpu_millis, code_hash, code_chars) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbc;
+    private final boolean enabled;
+    private final int batchSize;
+    private final BoundedEventQueue<ExecutionEvent> queue;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Counter written;
+
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "execution-event-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ExecutionEventLog(JdbcTemplate jdbc, MeterRegistry meterRegistry,
+            @Value("${analytics.enabled:true}") boolean enabled,
+            @Value("${analytics.queue-capacity:10000}") int queueCapacity,
+            @Value("${analytics.batch-size:500}") int batchSize,
+            @Value("${analytics.flush-millis:1000}") long flushMillis) {
+        this.jdbc = jdbc;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.queue = new BoundedEventQueue<>(queueCapacity);
+        this.dropped = meterRegistry.counter("playground.execution.events.dropped");
+        this.failed = meterRegistry.counter("playground.execution.events.failed");
+        this.written = meterRegistry.counter("playground.execution.events.written");
+        Gauge.builder("playground.execution.events.queued", queue, BoundedEventQueue::size).register(meterRegistry);
+        if (enabled) {
+            writer.scheduleWithFixedDelay(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Never blocks: queues the event, or drops and counts it if the writer is behind. */
+    public void record(ExecutionEvent event) {
+        if (enabled && !queue.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    // Writer thread: keep inserting full batches until the queue is empty
+    void flush() {
+        List<ExecutionEvent> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                jdbc.batchUpdate(INSERT, batch, batch.size(), (ps, e) -> {
+                    ps.setObject(1, LocalDateTime.ofInstant(e.getOccurredAt(), ZoneOffset.UTC));
+                    ps.setString(2, e.getSource());
+                    ps.setString(3, e.getUserKey());
+                    ps.setString(4, e.getOutcome());
+                    if (e.getExitCode() != null) {
+                        ps.setInt(5, e.getExitCode());
+                    } else {
+                        ps.setNull(5, Types.INTEGER);
+                    }
+                    ps.setLong(6, e.getWallMillis());
+                    ps.setLong(7, e.getCpuMillis());
+                    ps.setString(8, e.getCodeHash());
+                    ps.setInt(9, e.getCodeChars());
+                });
+                written.increment(batch.size());
+            } catch (RuntimeException ex) {
+                // Losing a batch of analytics beats retrying into a struggling database
+                failed.increment(batch.size());
+                log.warn("Dropped {} execution events: {}", batch.size(), ex.getMessage());
+            }
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+        if (enabled) {
+            flush(); // Whatever queued up since the last run
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.JavaPlayground.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Primary + read-replica pools, routed once {@code app.datasource.replica.url}
+ * is set. Without it the primary pool is the application's only DataSource.
+ *
+ * The switch is checked when the DataSource is created rather than with
+ * {@code @ConditionalOnProperty}: Spring AOT (the fast-start build) evaluates
+ * conditions at build time, and the replica must stay an environment setting
+ * of the deployed image.
+ *
+ * Each pool is tuned on its own ({@code spring.datasource.hikari.*} and
+ * {@code app.datasource.replica.hikari.*}) and publishes its usage as
+ * {@code hikaricp.connections.*} tagged pool=primary / pool=replica.
+ */
+@Configuration
+public class DataSourceRoutingConfig {
+
+    private HikariDataSource replica; // Not a bean: it only exists when configured, so we close it ourselves
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties primaryDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @FlywayDataSource // Migrations always go to the primary
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(@Qualifier("primaryDataSourceProperties") DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primary, Environment environment,
+            @Value("${app.datasource.replica.cool-down-seconds:30}") long coolDownSeconds,
+            MeterRegistry meterRegistry) {
+        if (!StringUtils.hasText(environment.getProperty("app.datasource.replica.url"))) {
+            return primary;
+        }
+        replica = replicaDataSource(Binder.get(environment), meterRegistry);
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica,
+                coolDownSeconds * 1000, meterRegistry.counter("playground.datasource.replica.fallbacks")::increment);
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // Bound from app.datasource.replica.* the way Boot binds spring.datasource.*
+    private static HikariDataSource replicaDataSource(Binder binder, MeterRegistry meterRegistry) {
+        DataSourceProperties properties = binder.bind("app.datasource.replica", DataSourceProperties.class).get();
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("app.datasource.replica.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+
+    @PreDestroy
+    public void closeReplica() {
+        if (replica != null) {
+            replica.close();
+        }
+    }
+}
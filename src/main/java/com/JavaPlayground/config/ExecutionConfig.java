@@ -0,0 +1,40 @@
+package com.JavaPlayground.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import com.JavaPlayground.execution.ExecutionBackend;
+import com.JavaPlayground.execution.ExecutionBroker;
+import com.JavaPlayground.execution.LocalExecutionBackend;
+import com.JavaPlayground.execution.RemoteExecutionBackend;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+@Configuration
+public class ExecutionConfig {
+
+    // "local": run programs on this node (default)
+    // "remote": queue them for execution workers (see ExecutionWorker)
+    @Bean
+    @Primary
+    public ExecutionBackend executionBackend(@Value("${execution.backend:local}") String backend,
+            @Value("${execution.remote.queue-timeout-seconds:30}") long queueTimeoutSeconds,
+            LocalExecutionBackend local, ExecutionBroker broker) {
+        if ("remote".equalsIgnoreCase(backend)) {
+            return new RemoteExecutionBackend(broker, queueTimeoutSeconds * 1000);
+        }
+        return local;
+    }
+
+    // Every user program (and javac-spawned helper) is a child JVM of this node
+    @Bean
+    public MeterBinder executionProcessMetrics() {
+        return registry -> Gauge.builder("playground.execution.processes",
+                () -> ProcessHandle.current().descendants().count())
+                .description("Child processes currently running user programs")
+                .register(registry);
+    }
+}
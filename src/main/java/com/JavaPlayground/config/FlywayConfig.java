@@ -0,0 +1,25 @@
+package com.JavaPlayground.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Migrations run at startup unless {@code app.flyway.migrate=false}. This is
+ * the switch to use instead of {@code spring.flyway.enabled}, which Spring AOT
+ * (the fast-start build) fixes at build time. Only the AppCDS training run,
+ * which has no database, turns it off.
+ */
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(@Value("${app.flyway.migrate:true}") boolean migrate) {
+        return flyway -> {
+            if (migrate) {
+                flyway.migrate();
+            }
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package com.JavaPlayground.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends {@code @Transactional(readOnly = true)} work to the replica pool and
+ * everything else to the primary. If the replica can't hand out a connection
+ * we fall back to the primary and leave the replica alone for a cool-down
+ * period, so one dead replica doesn't add a connection timeout to every read.
+ *
+ * Must be wrapped in a LazyConnectionDataSourceProxy: the JPA transaction
+ * manager grabs a connection before the read-only flag is published.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route { PRIMARY, REPLICA }
+
+    private final DataSource primary;
+    private final long coolDownMillis;
+    private final Runnable onFallback;
+    private volatile long replicaDownUntil;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, long coolDownMillis, Runnable onFallback) {
+        this.primary = primary;
+        this.coolDownMillis = coolDownMillis;
+        this.onFallback = onFallback;
+        setTargetDataSources(Map.<Object, Object>of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return readOnly && System.currentTimeMillis() >= replicaDownUntil ? Route.REPLICA : Route.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return withFallback(() -> super.getConnection(), () -> primary.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return withFallback(() -> super.getConnection(username, password),
+                () -> primary.getConnection(username, password));
+    }
+
+    private Connection withFallback(ConnectionSource routed, ConnectionSource fallback) throws SQLException {
+        if (determineCurrentLookupKey() != Route.REPLICA) {
+            return routed.get();
+        }
+        try {
+            return routed.get();
+        } catch (SQLException e) {
+            replicaDownUntil = System.currentTimeMillis() + coolDownMillis;
+            onFallback.run();
+            return fallback.get();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection get() throws SQLException;
+    }
+}
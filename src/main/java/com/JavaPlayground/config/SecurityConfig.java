@@ -2,6 +2,8 @@ package com.JavaPlayground.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -14,17 +16,26 @@ import com.JavaPlayground.security.OAuthUserService;
 public class SecurityConfig {
 
     private final OAuthUserService oAuthUserService;
+    private final Environment environment;
 
-    public SecurityConfig(OAuthUserService oAuthUserService) {
+    public SecurityConfig(OAuthUserService oAuthUserService, Environment environment) {
         this.oAuthUserService = oAuthUserService;
+        this.environment = environment;
     }
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+        // Checked at runtime rather than with @Profile, which AOT would fix at build time
+        boolean loadTest = environment.acceptsProfiles(Profiles.of("loadtest"));
         http
                 .csrf(AbstractHttpConfigurer::disable)
-                .authorizeHttpRequests(auth -> auth
-                .requestMatchers(
+                .authorizeHttpRequests(auth -> {
+                auth.requestMatchers("/api/analytics/**").hasRole("ADMIN"); // app.admin-emails; must come before the /api/** permit
+                if (loadTest) {
+                    // The load generator samples metrics anonymously; anywhere else they stay behind login
+                    auth.requestMatchers("/actuator/metrics/**").permitAll();
+                }
+                auth.requestMatchers(
                         "/", // <--- Allow Root URL
                         "/index.html", // <--- Allow the actual file
                         "/login", // Allow Login URL
@@ -35,10 +46,11 @@ public class SecurityConfig {
                         "/js/**",
                         "/img/**",
                         "/api/**",
+                        "/actuator/health",
                         "/terminal"
                 ).permitAll()
-                .anyRequest().authenticated()
-                )
+                .anyRequest().authenticated();
+                })
                 .oauth2Login(oauth -> oauth
                 .loginPage("/login")
                 .userInfoEndpoint(userInfo -> userInfo.userService(oAuthUserService))
@@ -0,0 +1,112 @@
+package com.JavaPlayground.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Serves css/js/img the way slow school networks need:
+ * <ul>
+ * <li>Fingerprinted URLs ({@code /js/script-<md5>.js}, written into the HTML at build time)
+ * are cached for a year as immutable.</li>
+ * <li>Pre-compressed {@code .br}/{@code .gz} variants made at build time are sent
+ * when the browser accepts them.</li>
+ * <li>Everything else (plain URLs, the HTML pages) revalidates with an ETag.</li>
+ * </ul>
+ */
+@Configuration
+public class StaticResourceConfig implements WebMvcConfigurer {
+
+    private static final String[] ASSET_DIRS = { "css", "js", "img" };
+
+    // Same naming as VersionResourceResolver's content strategy: name-<md5>.ext
+    private static final Pattern FINGERPRINTED = Pattern.compile(".*-[0-9a-f]{32}\\.[^/]+$");
+
+    private final Map<String, String> etags = new ConcurrentHashMap<>();
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        for (String dir : ASSET_DIRS) {
+            registry.addResourceHandler("/" + dir + "/**")
+                    .addResourceLocations("classpath:/static/" + dir + "/")
+                    .setEtagGenerator(this::etagFor)
+                    .resourceChain(true)
+                    // Encoded first: it looks for a .br/.gz next to whatever the version resolver finds
+                    .addResolver(new EncodedResourceResolver())
+                    .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+        }
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                CacheControl cacheControl = FINGERPRINTED.matcher(request.getRequestURI()).matches()
+                        ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable()
+                        : CacheControl.noCache();
+                response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+                return true;
+            }
+        }).addPathPatterns("/css/**", "/js/**", "/img/**");
+    }
+
+    // The HTML pages reference the fingerprinted assets, so they must always revalidate
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> htmlEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/", "/index.html", "/login", "/login.html");
+        return registration;
+    }
+
+    // Content hash of the uncompressed file, computed once per file. Weak because the .gz/.br bodies
+    // differ byte-wise: every encoding must get the same one, or a revalidation that comes back with
+    // another Accept-Encoding (or the version resolver's ETag, which a fingerprinted variant is sent
+    // with) never gets a 304.
+    private String etagFor(Resource resource) {
+        try {
+            Resource file = uncompressed(resource);
+            String key = file.getURL().toString();
+            return etags.computeIfAbsent(key, k -> {
+                try (InputStream in = file.getInputStream()) {
+                    return "W/\"" + DigestUtils.md5DigestAsHex(in) + "\"";
+                } catch (IOException e) {
+                    return null;
+                }
+            });
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // A .gz/.br variant's file name is the original's, and it resolves relative paths next to itself
+    private static Resource uncompressed(Resource resource) throws IOException {
+        if (resource instanceof HttpResource
+                && ((HttpResource) resource).getResponseHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            return resource.createRelative(resource.getFilename());
+        }
+        return resource;
+    }
+}
@@ -5,20 +5,25 @@ import org.springframework.web.socket.config.annotation.EnableWebSocket;
 import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
 import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
 import com.JavaPlayground.handler.TerminalWebSocketHandler;
+import com.JavaPlayground.ratelimit.RateLimitHandshakeInterceptor;
 
 @Configuration
 @EnableWebSocket
 public class WebSocketConfig implements WebSocketConfigurer {
 
     private final TerminalWebSocketHandler terminalHandler;
+    private final RateLimitHandshakeInterceptor rateLimitInterceptor;
 
-    public WebSocketConfig(TerminalWebSocketHandler terminalHandler) {
+    public WebSocketConfig(TerminalWebSocketHandler terminalHandler, RateLimitHandshakeInterceptor rateLimitInterceptor) {
         this.terminalHandler = terminalHandler;
+        this.rateLimitInterceptor = rateLimitInterceptor;
     }
 
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
         // This is the endpoint your JS will connect to
-        registry.addHandler(terminalHandler, "/terminal").setAllowedOrigins("*");
+        registry.addHandler(terminalHandler, "/terminal")
+                .addInterceptors(rateLimitInterceptor)
+                .setAllowedOrigins("*");
     }
 }
\ No newline at end of file
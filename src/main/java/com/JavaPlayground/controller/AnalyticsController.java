@@ -0,0 +1,45 @@
+package com.JavaPlayground.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.JavaPlayground.analytics.ExecutionAnalytics;
+import com.JavaPlayground.model.HourlyLoad;
+import com.JavaPlayground.model.SlowProgram;
+
+// Admins only: verified emails listed in app.admin-emails (see SecurityConfig, OAuthUserService)
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private static final int MAX_HOURS = 24 * 31;
+    private static final int MAX_LIMIT = 100;
+
+    // Looked up on first use so the bean isn't created at startup. Not @Lazy: a lazy CGLIB proxy
+    // of this @Transactional class clashes with the AOT-generated one in the fast-start build.
+    private final ObjectProvider<ExecutionAnalytics> analytics;
+
+    public AnalyticsController(ObjectProvider<ExecutionAnalytics> analytics) {
+        this.analytics = analytics;
+    }
+
+    @GetMapping("/load")
+    public List<HourlyLoad> load(@RequestParam(defaultValue = "24") int hours) {
+        return analytics.getObject().hourlyLoad(clamp(hours, 1, MAX_HOURS));
+    }
+
+    @GetMapping("/slowest")
+    public List<SlowProgram> slowest(@RequestParam(defaultValue = "24") int hours,
+            @RequestParam(defaultValue = "20") int limit) {
+        return analytics.getObject().slowest(clamp(hours, 1, MAX_HOURS), clamp(limit, 1, MAX_LIMIT));
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
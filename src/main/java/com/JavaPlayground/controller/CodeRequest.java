@@ -4,6 +4,8 @@ public class CodeRequest {
 
     private String code;
     private String input; // NEW
+    private boolean bypassCache; // Force a real run even if a cached result exists
+    private boolean profile; // Run under Flight Recorder and return a ProfileReport
 
     public String getCode() {
         return code;
@@ -20,4 +22,20 @@ public class CodeRequest {
     public void setInput(String input) {
         this.input = input;
     }
+
+    public boolean isBypassCache() {
+        return bypassCache;
+    }
+
+    public void setBypassCache(boolean bypassCache) {
+        this.bypassCache = bypassCache;
+    }
+
+    public boolean isProfile() {
+        return profile;
+    }
+
+    public void setProfile(boolean profile) {
+        this.profile = profile;
+    }
 }
@@ -3,12 +3,17 @@ package com.JavaPlayground.controller;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.JavaPlayground.model.BenchmarkResponse;
 import com.JavaPlayground.model.CompilationResponse;
+import com.JavaPlayground.model.DiagnosticsResponse;
+import com.JavaPlayground.ratelimit.RateLimitKeys;
 import com.JavaPlayground.service.CompilerService;
+import com.JavaPlayground.service.DiagnosticsService;
 
 @RestController
 @RequestMapping("/api")
@@ -18,11 +23,32 @@ public class CompilerController {
     @Autowired
     private CompilerService compilerService;
 
+    @Autowired
+    private DiagnosticsService diagnosticsService;
+
     @PostMapping("/compile")
-    public CompilationResponse compileAndRun(@RequestBody CodeRequest request) {
+    public CompilationResponse compileAndRun(@RequestBody CodeRequest request,
+            @RequestAttribute(name = RateLimitKeys.ATTRIBUTE, required = false) String quotaKey) {
         return compilerService.compileAndExecute(
                 request.getCode(),
-                request.getInput()
+                request.getInput(),
+                quotaKey,
+                request.isBypassCache(),
+                request.isProfile()
         );
     }
+
+    @PostMapping("/benchmark")
+    public BenchmarkResponse benchmark(@RequestBody CodeRequest request,
+            @RequestAttribute(name = RateLimitKeys.ATTRIBUTE, required = false) String quotaKey) {
+        return compilerService.benchmark(request.getCode(), quotaKey);
+    }
+
+    // Parse + attribute only, for squiggles while typing; nothing is run
+    @PostMapping("/diagnostics")
+    public DiagnosticsResponse diagnostics(@RequestBody DiagnosticsRequest request,
+            @RequestAttribute(name = RateLimitKeys.ATTRIBUTE, required = false) String rateLimitKey) {
+        String client = request.getClientId() == null ? null : rateLimitKey + "|" + request.getClientId();
+        return diagnosticsService.analyze(request.getCode(), client);
+    }
 }
@@ -0,0 +1,23 @@
+package com.JavaPlayground.controller;
+
+public class DiagnosticsRequest {
+
+    private String code;
+    private String clientId; // One per editor tab: a newer request cancels the older one still running
+
+    public String getCode() {
+        return code;
+    }
+
+    public void setCode(String code) {
+        this.code = code;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+}
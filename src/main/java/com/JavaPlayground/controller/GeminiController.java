@@ -2,6 +2,7 @@ package com.JavaPlayground.controller;
 
 import java.util.Map;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -13,9 +14,10 @@ import com.JavaPlayground.service.GeminiService;
 @RequestMapping("/api/gemini")
 public class GeminiController {
 
-    private final GeminiService geminiService;
+    // Looked up on first use, so the AI client isn't created at startup
+    private final ObjectProvider<GeminiService> geminiService;
 
-    public GeminiController(GeminiService geminiService) {
+    public GeminiController(ObjectProvider<GeminiService> geminiService) {
         this.geminiService = geminiService;
     }
 
@@ -23,7 +25,7 @@ public class GeminiController {
     @PostMapping("/testcases")
     public Map<String, String> getTestCases(@RequestBody Map<String, String> payload) {
         String code = payload.get("code");
-        String result = geminiService.generateTestCases(code);
+        String result = geminiService.getObject().generateTestCases(code);
         return Map.of("testCases", result);
     }
 
@@ -31,7 +33,7 @@ public class GeminiController {
     @PostMapping("/hints")
     public Map<String, String> getHints(@RequestBody Map<String, String> payload) {
         String code = payload.get("code");
-        String result = geminiService.generateHints(code);
+        String result = geminiService.getObject().generateHints(code);
         return Map.of("result", result);
     }
 }
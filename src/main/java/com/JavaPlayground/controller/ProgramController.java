@@ -4,8 +4,10 @@ import com.JavaPlayground.model.Program;
 import com.JavaPlayground.model.User;
 import com.JavaPlayground.repository.ProgramRepository;
 import com.JavaPlayground.repository.UserRepository;
+import com.JavaPlayground.security.OAuthUserService;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -30,6 +32,17 @@ public class ProgramController {
             return null;
         }
 
+        // Logged in through OAuthUserService: exactly one lookup on the (email, provider) unique index
+        String dbEmail = principal.getAttribute(OAuthUserService.EMAIL_ATTRIBUTE);
+        String dbProvider = principal.getAttribute(OAuthUserService.PROVIDER_ATTRIBUTE);
+        if (dbEmail != null && dbProvider != null) {
+            Optional<User> user = userRepository.findByEmailAndProvider(dbEmail, dbProvider);
+            if (user.isPresent()) {
+                return user.get();
+            }
+        }
+
+        // Fallbacks for older sessions and rows created before the upsert existed
         // A. Try finding by Email (Google standard)
         String email = principal.getAttribute("email");
         if (email != null) {
@@ -94,7 +107,10 @@ public class ProgramController {
         return programRepository.findByUserOrderByIdDesc(user);
     }
 
+    // Writes run in one read-write transaction, so their lookups hit the primary
+    // (a lagging replica could miss a user who just logged in)
     @PostMapping
+    @Transactional
     public Program saveProgram(@AuthenticationPrincipal OAuth2User principal, @RequestBody Map<String, String> payload) {
         if (principal == null) {
             throw new RuntimeException("Not logged in");
@@ -131,6 +147,7 @@ public class ProgramController {
     }
 
     @DeleteMapping("/{id}")
+    @Transactional
     public void deleteProgram(@AuthenticationPrincipal OAuth2User principal, @PathVariable Long id) {
         User user = getAuthenticatedUser(principal);
         if (user == null) {
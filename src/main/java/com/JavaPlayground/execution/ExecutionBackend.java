@@ -0,0 +1,15 @@
+package com.JavaPlayground.execution;
+
+/**
+ * Where user programs actually get compiled and run.
+ * <ul>
+ * <li>{@link LocalExecutionBackend}: on this JVM's host (the original behaviour).</li>
+ * <li>{@link RemoteExecutionBackend}: on execution workers fed through an {@link ExecutionBroker}.</li>
+ * </ul>
+ * Selected with {@code execution.backend=local|remote}.
+ */
+public interface ExecutionBackend {
+
+    /** Starts the job asynchronously. Progress is reported to the listener from a backend thread. */
+    ExecutionHandle submit(ExecutionJob job, ExecutionListener listener);
+}
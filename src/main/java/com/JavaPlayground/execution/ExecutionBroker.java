@@ -0,0 +1,40 @@
+package com.JavaPlayground.execution;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Transport between the web tier and execution workers: a job queue plus a
+ * pair of per-job message channels. {@link InMemoryExecutionBroker} is the
+ * only implementation so far; a networked one (Redis streams, JMS, ...) would
+ * let workers run on separate nodes.
+ *
+ * Messages sent to a channel before anyone subscribes must be buffered.
+ */
+public interface ExecutionBroker {
+
+    /** Queues a job for any worker and opens its message channels. */
+    void publishJob(ExecutionJob job);
+
+    /** Takes the next job, waiting up to the given time. Returns null on timeout. */
+    ExecutionJob pollJob(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Takes a job back off the queue if no worker has picked it up yet.
+     * Returns false if a worker already has it (or it never existed).
+     */
+    boolean withdrawJob(String jobId);
+
+    // Web tier -> worker
+    void sendControl(String jobId, JobMessage message);
+
+    void subscribeControl(String jobId, Consumer<JobMessage> consumer);
+
+    // Worker -> web tier
+    void sendEvent(String jobId, JobMessage message);
+
+    void subscribeEvents(String jobId, Consumer<JobMessage> consumer);
+
+    /** Closes both channels of a finished job. */
+    void release(String jobId);
+}
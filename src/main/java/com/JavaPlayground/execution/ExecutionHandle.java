@@ -0,0 +1,14 @@
+package com.JavaPlayground.execution;
+
+/** Lets the caller talk to a submitted execution while it runs. */
+public interface ExecutionHandle {
+
+    /** Writes raw data to the program's stdin. Input sent before the program starts is queued. */
+    void sendInput(String data);
+
+    /** Closes stdin so a {@code Scanner} sees EOF instead of waiting forever. */
+    void closeInput();
+
+    /** Kills the program (and anything it spawned). Safe to call more than once. */
+    void cancel();
+}
@@ -0,0 +1,67 @@
+package com.JavaPlayground.execution;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Everything a backend needs to compile and run one program. Kept
+ * serializable so it can travel over a broker to a remote worker.
+ */
+public class ExecutionJob implements Serializable {
+
+    private final String id;
+    private final String code;
+    private final ExecutionLimits limits;
+    private final boolean profile; // Run under Flight Recorder and report hot spots
+    private final LinkedHashMap<String, String> extraSources; // Class name -> source, compiled next to the code
+    private final String mainClass; // Null means the public class of the code
+
+    public ExecutionJob(String code, ExecutionLimits limits) {
+        this(code, limits, false);
+    }
+
+    public ExecutionJob(String code, ExecutionLimits limits, boolean profile) {
+        this(code, limits, profile, Map.of(), null);
+    }
+
+    /** A job whose entry point is one of our own generated classes (e.g. the benchmark harness). */
+    public ExecutionJob(String code, ExecutionLimits limits, Map<String, String> extraSources, String mainClass) {
+        this(code, limits, false, extraSources, mainClass);
+    }
+
+    private ExecutionJob(String code, ExecutionLimits limits, boolean profile, Map<String, String> extraSources,
+            String mainClass) {
+        this.id = UUID.randomUUID().toString();
+        this.code = code;
+        this.limits = limits;
+        this.profile = profile;
+        this.extraSources = new LinkedHashMap<>(extraSources);
+        this.mainClass = mainClass;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public ExecutionLimits getLimits() {
+        return limits;
+    }
+
+    public boolean isProfile() {
+        return profile;
+    }
+
+    public Map<String, String> getExtraSources() {
+        return extraSources;
+    }
+
+    public String getMainClass() {
+        return mainClass;
+    }
+}
@@ -0,0 +1,18 @@
+package com.JavaPlayground.execution;
+
+/** Which budget a program ran out of (see {@link ExecutionLimits}). */
+public enum ExecutionLimit {
+    CPU("CPU time"),
+    WALL_CLOCK("Wall-clock time"),
+    IDLE("Idle time");
+
+    private final String label;
+
+    ExecutionLimit(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
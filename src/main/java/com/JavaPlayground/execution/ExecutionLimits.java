@@ -0,0 +1,58 @@
+package com.JavaPlayground.execution;
+
+import java.io.Serializable;
+
+/**
+ * Budgets for one program run, enforced by the backend's watchdog.
+ *
+ * CPU time is what the program (and anything it spawned) actually consumed,
+ * so a busy node slows programs down without failing them. Wall-clock time
+ * is the outer bound, and idle time is how long the program may sit without
+ * using CPU or receiving input (e.g. blocked on a Scanner nobody answers).
+ */
+public class ExecutionLimits implements Serializable {
+
+    private final long cpuMillis;
+    private final long wallMillis;
+    private final long idleMillis;
+
+    public ExecutionLimits(long cpuMillis, long wallMillis, long idleMillis) {
+        this.cpuMillis = cpuMillis;
+        this.wallMillis = wallMillis;
+        this.idleMillis = idleMillis;
+    }
+
+    public static ExecutionLimits ofSeconds(long cpuSeconds, long wallSeconds, long idleSeconds) {
+        return new ExecutionLimits(cpuSeconds * 1000, wallSeconds * 1000, idleSeconds * 1000);
+    }
+
+    public long getCpuMillis() {
+        return cpuMillis;
+    }
+
+    public long getWallMillis() {
+        return wallMillis;
+    }
+
+    public long getIdleMillis() {
+        return idleMillis;
+    }
+
+    /** The budget for a limit, for messages like "CPU time limit of 5s exceeded". */
+    public long millisFor(ExecutionLimit limit) {
+        switch (limit) {
+            case CPU:
+                return cpuMillis;
+            case WALL_CLOCK:
+                return wallMillis;
+            default:
+                return idleMillis;
+        }
+    }
+
+    public String describe(ExecutionLimit limit) {
+        long millis = millisFor(limit);
+        String amount = millis % 1000 == 0 ? (millis / 1000) + "s" : millis + "ms";
+        return limit.getLabel() + " limit of " + amount + " exceeded";
+    }
+}
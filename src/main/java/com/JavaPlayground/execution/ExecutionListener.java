@@ -0,0 +1,18 @@
+package com.JavaPlayground.execution;
+
+/**
+ * Receives the progress of one execution. Output may arrive in any number of
+ * chunks; after that exactly one of {@link #onCompileError}, {@link #onExit}
+ * or {@link #onFailure} is called.
+ */
+public interface ExecutionListener {
+
+    void onOutput(String chunk);
+
+    void onCompileError(String diagnostics);
+
+    void onExit(ExecutionOutcome outcome);
+
+    /** Anything that stopped us from running the program at all (no public class, no JDK, I/O errors...). */
+    void onFailure(String message);
+}
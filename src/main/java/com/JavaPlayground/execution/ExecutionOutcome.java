@@ -0,0 +1,53 @@
+package com.JavaPlayground.execution;
+
+import java.io.Serializable;
+
+import com.JavaPlayground.model.ProfileReport;
+
+/** How a program run ended. */
+public class ExecutionOutcome implements Serializable {
+
+    private final int exitCode;
+    private final long elapsedMillis; // Wall-clock time of the run itself (compile excluded)
+    private final long cpuMillis; // CPU time of the program and everything it spawned
+    private final ExecutionLimit limitExceeded; // Why the watchdog killed it, or null
+    private final ProfileReport profile; // Only for profiled jobs, and null if no recording was written
+
+    public ExecutionOutcome(int exitCode, long elapsedMillis, long cpuMillis, ExecutionLimit limitExceeded,
+            ProfileReport profile) {
+        this.exitCode = exitCode;
+        this.elapsedMillis = elapsedMillis;
+        this.cpuMillis = cpuMillis;
+        this.limitExceeded = limitExceeded;
+        this.profile = profile;
+    }
+
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getCpuMillis() {
+        return cpuMillis;
+    }
+
+    /**
+     * What to charge against the caller's CPU quota. A run whose process was
+     * gone before its CPU time could be sampled has none; its wall time is a
+     * close upper bound.
+     */
+    public long getChargeableMillis() {
+        return cpuMillis > 0 ? cpuMillis : elapsedMillis;
+    }
+
+    public ExecutionLimit getLimitExceeded() {
+        return limitExceeded;
+    }
+
+    public ProfileReport getProfile() {
+        return profile;
+    }
+}
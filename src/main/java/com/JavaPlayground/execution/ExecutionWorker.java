@@ -0,0 +1,136 @@
+package com.JavaPlayground.execution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pulls jobs from the {@link ExecutionBroker}, runs them with the
+ * {@link LocalExecutionBackend} and streams events back. Each worker thread
+ * runs one job at a time, so {@code execution.worker.threads} is the number
+ * of programs this node will run concurrently.
+ *
+ * Enable it with {@code execution.worker.enabled=true}. With the in-memory
+ * broker that means the node running the web tier.
+ */
+@Component
+public class ExecutionWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutionWorker.class);
+
+    // Past the job's wall limit the local watchdog has killed the program; this only covers a lost callback
+    private static final long COMPLETION_MARGIN_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final long CANCEL_GRACE_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    private final ExecutionBroker broker;
+    private final LocalExecutionBackend local;
+    private final boolean enabled;
+    private final int threadCount;
+
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    public ExecutionWorker(ExecutionBroker broker, LocalExecutionBackend local,
+            @Value("${execution.worker.enabled:false}") boolean enabled,
+            @Value("${execution.worker.threads:4}") int threadCount) {
+        this.broker = broker;
+        this.local = local;
+        this.enabled = enabled;
+        this.threadCount = threadCount;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < threadCount; i++) {
+            Thread t = new Thread(this::pollLoop, "execution-worker-" + i);
+            t.setDaemon(true);
+            t.start();
+            threads.add(t);
+        }
+    }
+
+    private void pollLoop() {
+        while (running) {
+            try {
+                ExecutionJob job = broker.pollJob(1, TimeUnit.SECONDS);
+                if (job != null) {
+                    process(job);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Execution job failed", e); // Keep the worker alive whatever one job did
+            }
+        }
+    }
+
+    private void process(ExecutionJob job) throws InterruptedException {
+        String jobId = job.getId();
+        CountDownLatch done = new CountDownLatch(1);
+
+        ExecutionHandle handle = local.submit(job, new ExecutionListener() {
+            @Override
+            public void onOutput(String chunk) {
+                broker.sendEvent(jobId, JobMessage.of(JobMessage.Type.OUTPUT, chunk));
+            }
+
+            @Override
+            public void onCompileError(String diagnostics) {
+                broker.sendEvent(jobId, JobMessage.of(JobMessage.Type.COMPILE_ERROR, diagnostics));
+                done.countDown();
+            }
+
+            @Override
+            public void onExit(ExecutionOutcome outcome) {
+                broker.sendEvent(jobId, JobMessage.exit(outcome));
+                done.countDown();
+            }
+
+            @Override
+            public void onFailure(String message) {
+                broker.sendEvent(jobId, JobMessage.of(JobMessage.Type.FAILURE, message));
+                done.countDown();
+            }
+        });
+
+        broker.subscribeControl(jobId, message -> {
+            switch (message.getType()) {
+                case INPUT -> handle.sendInput(message.getText());
+                case CLOSE_INPUT -> handle.closeInput();
+                case CANCEL -> handle.cancel();
+                default -> {
+                    // Events never arrive on the control channel
+                }
+            }
+        });
+
+        if (!done.await(job.getLimits().getWallMillis() + COMPLETION_MARGIN_MILLIS, TimeUnit.MILLISECONDS)) {
+            handle.cancel();
+            if (!done.await(CANCEL_GRACE_MILLIS, TimeUnit.MILLISECONDS)) {
+                // Free this worker thread; the web tier releases the channels on this terminal event
+                broker.sendEvent(jobId,
+                        JobMessage.of(JobMessage.Type.FAILURE, "The program did not finish and could not be stopped"));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        threads.forEach(Thread::interrupt);
+    }
+}
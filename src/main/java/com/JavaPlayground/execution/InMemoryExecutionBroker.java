@@ -0,0 +1,102 @@
+package com.JavaPlayground.execution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Single-JVM broker: web tier and workers share the queue in memory.
+ * Used for development, tests and single-node deployments of the remote backend.
+ */
+@Component
+public class InMemoryExecutionBroker implements ExecutionBroker {
+
+    private final BlockingQueue<ExecutionJob> jobs = new LinkedBlockingQueue<>();
+    private final Map<String, Mailbox> controlChannels = new ConcurrentHashMap<>();
+    private final Map<String, Mailbox> eventChannels = new ConcurrentHashMap<>();
+
+    @Override
+    public void publishJob(ExecutionJob job) {
+        controlChannels.put(job.getId(), new Mailbox());
+        eventChannels.put(job.getId(), new Mailbox());
+        jobs.add(job);
+    }
+
+    @Override
+    public ExecutionJob pollJob(long timeout, TimeUnit unit) throws InterruptedException {
+        return jobs.poll(timeout, unit);
+    }
+
+    @Override
+    public boolean withdrawJob(String jobId) {
+        return jobs.removeIf(job -> job.getId().equals(jobId)); // Atomic against pollJob: the queue is locked
+    }
+
+    @Override
+    public void sendControl(String jobId, JobMessage message) {
+        deliver(controlChannels, jobId, message);
+    }
+
+    @Override
+    public void subscribeControl(String jobId, Consumer<JobMessage> consumer) {
+        subscribe(controlChannels, jobId, consumer);
+    }
+
+    @Override
+    public void sendEvent(String jobId, JobMessage message) {
+        deliver(eventChannels, jobId, message);
+    }
+
+    @Override
+    public void subscribeEvents(String jobId, Consumer<JobMessage> consumer) {
+        subscribe(eventChannels, jobId, consumer);
+    }
+
+    @Override
+    public void release(String jobId) {
+        controlChannels.remove(jobId);
+        eventChannels.remove(jobId);
+    }
+
+    private void deliver(Map<String, Mailbox> channels, String jobId, JobMessage message) {
+        Mailbox mailbox = channels.get(jobId);
+        if (mailbox != null) { // Channel already released: the job is over, drop it
+            mailbox.deliver(message);
+        }
+    }
+
+    private void subscribe(Map<String, Mailbox> channels, String jobId, Consumer<JobMessage> consumer) {
+        Mailbox mailbox = channels.get(jobId);
+        if (mailbox != null) {
+            mailbox.subscribe(consumer);
+        }
+    }
+
+    // Buffers messages until a consumer shows up, then hands them over in order
+    private static class Mailbox {
+
+        private List<JobMessage> pending = new ArrayList<>();
+        private Consumer<JobMessage> consumer;
+
+        synchronized void deliver(JobMessage message) {
+            if (consumer == null) {
+                pending.add(message);
+            } else {
+                consumer.accept(message);
+            }
+        }
+
+        synchronized void subscribe(Consumer<JobMessage> consumer) {
+            this.consumer = consumer;
+            pending.forEach(consumer);
+            pending = null;
+        }
+    }
+}
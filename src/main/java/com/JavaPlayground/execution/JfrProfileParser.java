@@ -0,0 +1,106 @@
+package com.JavaPlayground.execution;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.JavaPlayground.model.ProfileReport;
+
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Turns a Flight Recorder file from a profiled run into a small summary:
+ * hottest methods, allocation by type, GC pauses and peak heap.
+ */
+public final class JfrProfileParser {
+
+    /**
+     * JVM flags for the child. The "default" settings are the ones JFR documents as safe for
+     * production (around 1% overhead); maxsize caps the file so parsing stays cheap too.
+     */
+    public static List<String> jvmOptions(Path recording) {
+        return List.of(
+                "-XX:StartFlightRecording=filename=" + recording + ",settings=default,maxsize=16m,dumponexit=true",
+                "-Xlog:jfr+startup=off"); // Keep "Started recording..." out of the program output
+    }
+
+    private static final int TOP = 10;
+
+    private JfrProfileParser() {
+    }
+
+    public static ProfileReport parse(Path recording) throws IOException {
+        Map<String, Long> samplesByMethod = new HashMap<>();
+        Map<String, Long> bytesByType = new HashMap<>();
+        long totalSamples = 0;
+        long allocatedBytes = 0;
+        boolean heapSummarySeen = false;
+        ProfileReport report = new ProfileReport();
+
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                switch (event.getEventType().getName()) {
+                    case "jdk.ExecutionSample" -> {
+                        if (event.getStackTrace() != null && !event.getStackTrace().getFrames().isEmpty()) {
+                            RecordedFrame top = event.getStackTrace().getFrames().get(0);
+                            samplesByMethod.merge(describe(top.getMethod()), 1L, Long::sum);
+                            totalSamples++;
+                        }
+                    }
+                    case "jdk.ObjectAllocationSample" -> {
+                        RecordedClass type = event.getClass("objectClass");
+                        if (type != null) {
+                            bytesByType.merge(type.getName(), event.getLong("weight"), Long::sum);
+                        }
+                        allocatedBytes += event.getLong("weight");
+                    }
+                    case "jdk.GarbageCollection" -> {
+                        double pauseMillis = event.getDuration("sumOfPauses").toNanos() / 1_000_000d;
+                        report.setGcCount(report.getGcCount() + 1);
+                        report.setGcTotalPauseMillis(report.getGcTotalPauseMillis() + pauseMillis);
+                        report.setGcMaxPauseMillis(Math.max(report.getGcMaxPauseMillis(), pauseMillis));
+                    }
+                    case "jdk.GCHeapSummary" -> {
+                        report.setPeakHeapBytes(Math.max(report.getPeakHeapBytes(), event.getLong("heapUsed")));
+                        heapSummarySeen = true;
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        // Heap summaries are only written around a GC. Without one nothing was freed, so the heap
+        // ended up holding at least everything the program allocated; the samples estimate that
+        if (!heapSummarySeen) {
+            report.setPeakHeapBytes(allocatedBytes);
+            report.setPeakHeapEstimated(true);
+        }
+
+        long samples = totalSamples;
+        report.setHotMethods(samplesByMethod.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(TOP)
+                .map(e -> new ProfileReport.HotMethod(e.getKey(), e.getValue(),
+                        Math.round(e.getValue() * 1000d / samples) / 10d))
+                .collect(Collectors.toList()));
+        report.setAllocations(bytesByType.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(TOP)
+                .map(e -> new ProfileReport.Allocation(e.getKey(), e.getValue()))
+                .collect(Collectors.toList()));
+        return report;
+    }
+
+    private static String describe(RecordedMethod method) {
+        return method.getType().getName() + "." + method.getName();
+    }
+}
@@ -0,0 +1,53 @@
+package com.JavaPlayground.execution;
+
+import java.io.Serializable;
+
+/**
+ * A message exchanged through the {@link ExecutionBroker} for a running job.
+ * Events flow from the worker to the web tier (OUTPUT ... EXIT), control
+ * messages flow the other way (INPUT, CLOSE_INPUT, CANCEL).
+ */
+public class JobMessage implements Serializable {
+
+    public enum Type {
+        // Worker -> web tier
+        OUTPUT, COMPILE_ERROR, EXIT, FAILURE,
+        // Web tier -> worker
+        INPUT, CLOSE_INPUT, CANCEL
+    }
+
+    private final Type type;
+    private final String text;
+    private final ExecutionOutcome outcome;
+
+    private JobMessage(Type type, String text, ExecutionOutcome outcome) {
+        this.type = type;
+        this.text = text;
+        this.outcome = outcome;
+    }
+
+    public static JobMessage of(Type type, String text) {
+        return new JobMessage(type, text, null);
+    }
+
+    public static JobMessage exit(ExecutionOutcome outcome) {
+        return new JobMessage(Type.EXIT, null, outcome);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public ExecutionOutcome getOutcome() {
+        return outcome;
+    }
+
+    /** True for the last event a job will ever produce. */
+    public boolean isTerminal() {
+        return type == Type.COMPILE_ERROR || type == Type.EXIT || type == Type.FAILURE;
+    }
+}
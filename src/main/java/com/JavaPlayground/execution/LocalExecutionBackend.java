@@ -0,0 +1,420 @@
+package com.JavaPlayground.execution;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.JavaPlayground.model.ProfileReport;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Compiles with the in-process javac API and runs the program as a child JVM
+ * on this host. Also used by {@link ExecutionWorker} on compute nodes.
+ */
+@Component
+public class LocalExecutionBackend implements ExecutionBackend {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalExecutionBackend.class);
+
+    private static final Pattern CLASS_NAME = Pattern.compile("public\\s+class\\s+(\\w+)");
+    private static final long LIMIT_CHECK_MILLIS = 100;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "local-execution");
+        t.setDaemon(true);
+        return t;
+    });
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "execution-watchdog");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Override
+    public ExecutionHandle submit(ExecutionJob job, ExecutionListener listener) {
+        LocalExecution execution = new LocalExecution();
+        executor.execute(() -> run(job, listener, execution));
+        return execution;
+    }
+
+    private void run(ExecutionJob job, ExecutionListener listener, LocalExecution execution) {
+        Path tempDir = null;
+        ScheduledFuture<?> limitCheck = null;
+        try {
+            // 1. Setup
+            tempDir = Files.createTempDirectory("java-exec-");
+
+            String className = extractClassName(job.getCode());
+            if (className == null) {
+                listener.onFailure("No public class found in code");
+                return;
+            }
+
+            List<Path> sources = new ArrayList<>();
+            sources.add(Files.write(tempDir.resolve(className + ".java"), job.getCode().getBytes()));
+            for (Map.Entry<String, String> extra : job.getExtraSources().entrySet()) {
+                sources.add(Files.write(tempDir.resolve(extra.getKey() + ".java"), extra.getValue().getBytes()));
+            }
+
+            // 2. Compile
+            JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+            if (compiler == null) {
+                listener.onFailure("JDK required (JRE is not sufficient)");
+                return;
+            }
+
+            String errors = compile(compiler, sources);
+            if (errors != null) {
+                listener.onCompileError(errors);
+                return;
+            }
+            if (execution.isCancelled()) {
+                listener.onFailure("Execution cancelled");
+                return;
+            }
+
+            // 3. Run
+            List<String> command = new ArrayList<>(List.of("java"));
+            Path recording = tempDir.resolve("profile.jfr"); // Lives in tempDir, so cleanup removes it
+            if (job.isProfile()) {
+                command.addAll(JfrProfileParser.jvmOptions(recording));
+            }
+            String mainClass = job.getMainClass() != null ? job.getMainClass() : className;
+            command.addAll(List.of("-cp", tempDir.toString(), mainClass));
+            ProcessBuilder pb = new ProcessBuilder(command);
+            pb.redirectErrorStream(true); // Merge stdout and stderr
+            long start = System.currentTimeMillis();
+            Process process = pb.start();
+            execution.attach(process);
+            ExecutionLimits limits = job.getLimits();
+            if (limits != null) {
+                limitCheck = watchdog.scheduleAtFixedRate(() -> {
+                    try {
+                        execution.checkLimits(limits);
+                    } catch (RuntimeException e) {
+                        // Escaping the task would cancel every later check and leave the run unlimited
+                        log.warn("Limit check failed", e);
+                    }
+                }, LIMIT_CHECK_MILLIS, LIMIT_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+            }
+
+            try (Reader reader = new InputStreamReader(process.getInputStream())) {
+                char[] buffer = new char[1024];
+                int read;
+                while ((read = reader.read(buffer)) != -1) {
+                    execution.markActive();
+                    listener.onOutput(new String(buffer, 0, read));
+                }
+            }
+            // Output ends as the program exits: catch its last CPU before waitFor reaps it
+            execution.sampleFinalCpu();
+
+            int exitCode = process.waitFor();
+            long elapsed = System.currentTimeMillis() - start;
+            if (limitCheck != null) {
+                limitCheck.cancel(false);
+            }
+            ProfileReport profile = job.isProfile() ? readProfile(recording) : null;
+            listener.onExit(new ExecutionOutcome(exitCode, elapsed, execution.getCpuMillis(),
+                    execution.getLimitExceeded(), profile));
+
+        } catch (Exception e) {
+            listener.onFailure("Error: " + e.getMessage());
+        } finally {
+            if (limitCheck != null) {
+                limitCheck.cancel(false);
+            }
+            execution.cancel(); // Reaps anything the program left behind
+            if (tempDir != null) {
+                try {
+                    Files.walk(tempDir).sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    /** Returns the formatted diagnostics, or null if compilation succeeded. */
+    private String compile(JavaCompiler compiler, List<Path> sources) throws IOException {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromPaths(sources);
+            if (compiler.getTask(null, fileManager, diagnostics, null, null, units).call()) {
+                return null;
+            }
+        }
+        StringBuilder errorMsg = new StringBuilder();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            errorMsg.append("Line ").append(diagnostic.getLineNumber()).append(": ")
+                    .append(diagnostic.getMessage(null)).append("\n");
+        }
+        return errorMsg.toString();
+    }
+
+    // A killed JVM never dumps its recording; the run is still reported, just without a profile
+    private ProfileReport readProfile(Path recording) {
+        if (!Files.exists(recording)) {
+            return null;
+        }
+        try {
+            return JfrProfileParser.parse(recording);
+        } catch (IOException e) {
+            return null;
+        } finally {
+            try {
+                Files.deleteIfExists(recording);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private String extractClassName(String code) {
+        Matcher matcher = CLASS_NAME.matcher(code);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        watchdog.shutdownNow();
+    }
+
+    // --- Handle for one local run ---
+    private static class LocalExecution implements ExecutionHandle {
+
+        // Where /proc is missing: less CPU than this per check means the program is blocked or
+        // sleeping (JVM housekeeping aside). A starved program on a busy node can fall below it,
+        // which is why a runnable thread is checked first.
+        private static final long ACTIVE_CPU_NANOS = TimeUnit.MILLISECONDS.toNanos(LIMIT_CHECK_MILLIS) / 10;
+
+        private final StringBuilder pendingInput = new StringBuilder();
+        private boolean inputClosed;
+        private volatile boolean cancelled;
+        private volatile Process process;
+
+        // Limit tracking. The map and lastCpuNanos are guarded by cpuLock: the watchdog samples
+        // periodically, the run thread once more at exit.
+        private final Object cpuLock = new Object();
+        private final Map<Long, Long> cpuNanosByPid = new HashMap<>(); // Exited children keep their last sample
+        private long lastCpuNanos;
+        private volatile long startNanos;
+        private volatile long lastActiveNanos;
+        private volatile long cpuNanos;
+        private volatile ExecutionLimit limitExceeded;
+
+        synchronized void attach(Process p) {
+            startNanos = System.nanoTime();
+            lastActiveNanos = startNanos;
+            this.process = p;
+            if (cancelled) {
+                destroy(p);
+                return;
+            }
+            // Flush whatever the caller sent while we were still compiling
+            if (pendingInput.length() > 0) {
+                write(p, pendingInput.toString());
+                pendingInput.setLength(0);
+            }
+            if (inputClosed) {
+                closeQuietly(p);
+            }
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+
+        void markActive() {
+            lastActiveNanos = System.nanoTime();
+        }
+
+        long getCpuMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(cpuNanos);
+        }
+
+        ExecutionLimit getLimitExceeded() {
+            return limitExceeded;
+        }
+
+        /** Called by the watchdog: samples the process tree's CPU time and kills it if a budget ran out. */
+        void checkLimits(ExecutionLimits limits) {
+            Process p = process;
+            if (p == null || limitExceeded != null || cancelled) {
+                return;
+            }
+            long now = System.nanoTime();
+            long total = sampleCpu(p);
+
+            ExecutionLimit exceeded = null;
+            if (TimeUnit.NANOSECONDS.toMillis(total) > limits.getCpuMillis()) {
+                exceeded = ExecutionLimit.CPU;
+            } else if (TimeUnit.NANOSECONDS.toMillis(now - startNanos) > limits.getWallMillis()) {
+                exceeded = ExecutionLimit.WALL_CLOCK;
+            } else if (TimeUnit.NANOSECONDS.toMillis(now - lastActiveNanos) > limits.getIdleMillis()) {
+                exceeded = ExecutionLimit.IDLE;
+            }
+            if (exceeded != null) {
+                limitExceeded = exceeded;
+                destroy(p);
+            }
+        }
+
+        /**
+         * The watchdog's last sample can be up to one check old, or missing for runs shorter
+         * than a check. Once the process is reaped its CPU time can't be read any more, so
+         * this is taken as soon as its output ends.
+         */
+        void sampleFinalCpu() {
+            Process p = process;
+            if (p != null) {
+                sampleCpu(p);
+            }
+        }
+
+        // Returns the CPU time of the whole process tree so far
+        private long sampleCpu(Process p) {
+            synchronized (cpuLock) {
+                boolean runnable = false;
+                try {
+                    List<ProcessHandle> tree = new ArrayList<>();
+                    tree.add(p.toHandle());
+                    p.descendants().forEach(tree::add); // Programs that spawn processes pay for them too
+                    for (ProcessHandle handle : tree) {
+                        sampleCpu(handle);
+                        runnable = runnable || hasRunnableThread(handle.pid());
+                    }
+                } catch (RuntimeException e) {
+                    // Keep the previous samples; the wall and idle limits must still be checked
+                    log.debug("CPU sample failed", e);
+                }
+                long total = cpuNanosByPid.values().stream().mapToLong(Long::longValue).sum();
+                if (runnable || total - lastCpuNanos > ACTIVE_CPU_NANOS) {
+                    lastActiveNanos = System.nanoTime();
+                }
+                lastCpuNanos = total;
+                cpuNanos = total;
+                return total;
+            }
+        }
+
+        private void sampleCpu(ProcessHandle handle) {
+            handle.info().totalCpuDuration().ifPresent(d -> cpuNanosByPid.put(handle.pid(), d.toNanos()));
+        }
+
+        /**
+         * Linux: true if a thread of the process is in state R, i.e. running or waiting for a
+         * CPU. Blocked on stdin, sleeping or waiting on a lock is S (or D), so this tells
+         * computing from idling however little CPU the scheduler hands out.
+         */
+        static boolean hasRunnableThread(long pid) {
+            Path tasks = Path.of("/proc", Long.toString(pid), "task");
+            try (DirectoryStream<Path> threads = Files.newDirectoryStream(tasks)) {
+                for (Path thread : threads) {
+                    if (threadState(thread) == 'R') {
+                        return true;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // No /proc (not Linux) or the process is gone: the CPU delta decides
+            }
+            return false;
+        }
+
+        // "<tid> (<name>) <state> ...": the name may contain spaces and parentheses
+        private static char threadState(Path thread) {
+            try {
+                String stat = Files.readString(thread.resolve("stat"));
+                int nameEnd = stat.lastIndexOf(')');
+                return nameEnd > 0 && nameEnd + 2 < stat.length() ? stat.charAt(nameEnd + 2) : '?';
+            } catch (IOException e) {
+                return '?'; // Thread exited while we listed them
+            }
+        }
+
+        @Override
+        public synchronized void sendInput(String data) {
+            if (inputClosed || cancelled) {
+                return;
+            }
+            if (process == null) {
+                pendingInput.append(data);
+            } else {
+                markActive(); // Typing counts as activity for the idle limit
+                write(process, data);
+            }
+        }
+
+        @Override
+        public synchronized void closeInput() {
+            if (inputClosed) {
+                return;
+            }
+            inputClosed = true;
+            if (process != null) {
+                closeQuietly(process);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            Process p = process;
+            if (p != null) {
+                destroy(p);
+            }
+        }
+
+        private static void write(Process p, String data) {
+            try {
+                OutputStream os = p.getOutputStream();
+                os.write(data.getBytes());
+                os.flush();
+            } catch (IOException e) {
+                // If the program finished already, writing fails. This is normal.
+            }
+        }
+
+        private static void closeQuietly(Process p) {
+            try {
+                p.getOutputStream().close(); // Sends EOF so Scanner stops waiting
+            } catch (IOException ignored) {
+            }
+        }
+
+        private static void destroy(Process p) {
+            p.descendants().forEach(ProcessHandle::destroyForcibly);
+            if (p.isAlive()) {
+                p.destroyForcibly();
+            }
+        }
+    }
+}
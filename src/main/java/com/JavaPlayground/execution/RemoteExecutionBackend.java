@@ -0,0 +1,95 @@
+package com.JavaPlayground.execution;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Hands jobs to whichever {@link ExecutionWorker} picks them up first and
+ * relays the worker's events back to the caller, so no user program runs on
+ * the thread pools that serve HTTP. The only broker so far is
+ * {@link InMemoryExecutionBroker}, so the workers share this JVM; running
+ * them on separate compute nodes needs a networked {@link ExecutionBroker}.
+ * Terminal sessions and REPLs stay node-local either way.
+ *
+ * A job no worker picks up within the queue timeout (all busy, or none
+ * running at all) is taken back and reported as a failure.
+ */
+public class RemoteExecutionBackend implements ExecutionBackend {
+
+    private final ExecutionBroker broker;
+    private final long queueTimeoutMillis;
+    private final ScheduledExecutorService queueWatchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "execution-queue-watchdog");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public RemoteExecutionBackend(ExecutionBroker broker, long queueTimeoutMillis) {
+        this.broker = broker;
+        this.queueTimeoutMillis = queueTimeoutMillis;
+    }
+
+    @Override
+    public ExecutionHandle submit(ExecutionJob job, ExecutionListener listener) {
+        String jobId = job.getId();
+        broker.publishJob(job);
+        ScheduledFuture<?> queueTimeout = queueWatchdog.schedule(
+                () -> withdraw(jobId, listener, "No execution worker is available right now. Please try again later."),
+                queueTimeoutMillis, TimeUnit.MILLISECONDS);
+        broker.subscribeEvents(jobId, message -> {
+            switch (message.getType()) {
+                case OUTPUT -> listener.onOutput(message.getText());
+                case COMPILE_ERROR -> listener.onCompileError(message.getText());
+                case EXIT -> listener.onExit(message.getOutcome());
+                case FAILURE -> listener.onFailure(message.getText());
+                default -> {
+                    // Control messages never arrive on the event channel
+                }
+            }
+            if (message.isTerminal()) {
+                queueTimeout.cancel(false);
+                broker.release(jobId);
+            }
+        });
+
+        return new ExecutionHandle() {
+            @Override
+            public void sendInput(String data) {
+                broker.sendControl(jobId, JobMessage.of(JobMessage.Type.INPUT, data));
+            }
+
+            @Override
+            public void closeInput() {
+                broker.sendControl(jobId, JobMessage.of(JobMessage.Type.CLOSE_INPUT, null));
+            }
+
+            @Override
+            public void cancel() {
+                queueTimeout.cancel(false);
+                // Still queued: don't let a worker start a program nobody wants any more
+                if (!withdraw(jobId, listener, "Execution cancelled")) {
+                    broker.sendControl(jobId, JobMessage.of(JobMessage.Type.CANCEL, null));
+                }
+            }
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        queueWatchdog.shutdownNow();
+    }
+
+    // Only one of the queue timeout, cancel() and a worker can win the job, so the listener finishes once
+    private boolean withdraw(String jobId, ExecutionListener listener, String reason) {
+        if (!broker.withdrawJob(jobId)) {
+            return false;
+        }
+        broker.release(jobId);
+        listener.onFailure(reason);
+        return true;
+    }
+}
@@ -1,29 +1,62 @@
 package com.JavaPlayground.handler;
 
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.*;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
-import javax.tools.*;
-import java.io.*;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.Comparator;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import com.JavaPlayground.analytics.ExecutionEvent;
+import com.JavaPlayground.analytics.ExecutionEventLog;
+import com.JavaPlayground.execution.ExecutionBackend;
+import com.JavaPlayground.execution.ExecutionJob;
+import com.JavaPlayground.execution.ExecutionLimits;
+import com.JavaPlayground.execution.ExecutionListener;
+import com.JavaPlayground.execution.ExecutionOutcome;
+import com.JavaPlayground.ratelimit.CpuQuotaService;
+import com.JavaPlayground.ratelimit.RateLimitCategory;
+import com.JavaPlayground.ratelimit.RateLimitKeys;
+import com.JavaPlayground.ratelimit.RateLimiter;
+import com.JavaPlayground.ratelimit.TokenBucket;
+import com.JavaPlayground.repl.ReplSessionManager;
+import com.JavaPlayground.terminal.TerminalSession;
+import com.JavaPlayground.terminal.TerminalSessionRegistry;
 
 @Component
 public class TerminalWebSocketHandler extends TextWebSocketHandler {
 
-    // Store active processes so we can send input to them later
-    private final Map<String, Process> activeProcesses = new ConcurrentHashMap<>();
-    private final Map<String, Path> sessionTempDirs = new ConcurrentHashMap<>();
+    // Running programs live in the registry, not on the socket, so they survive reconnects
+    private final TerminalSessionRegistry sessions;
+    private final ExecutionBackend executionBackend;
+    private final RateLimiter rateLimiter;
+    private final CpuQuotaService cpuQuota;
+    private final ReplSessionManager replSessions;
+    private final ExecutionEventLog eventLog;
+    // Interactive programs may wait a long time for the user to type; only CPU is kept tight
+    private final ExecutionLimits limits;
+
+    public TerminalWebSocketHandler(TerminalSessionRegistry sessions, ExecutionBackend executionBackend,
+            RateLimiter rateLimiter, CpuQuotaService cpuQuota, ReplSessionManager replSessions,
+            ExecutionEventLog eventLog,
+            @Value("${execution.limits.terminal.cpu-seconds:10}") long cpuSeconds,
+            @Value("${execution.limits.terminal.wall-seconds:900}") long wallSeconds,
+            @Value("${execution.limits.terminal.idle-seconds:300}") long idleSeconds) {
+        this.sessions = sessions;
+        this.executionBackend = executionBackend;
+        this.rateLimiter = rateLimiter;
+        this.cpuQuota = cpuQuota;
+        this.replSessions = replSessions;
+        this.eventLog = eventLog;
+        this.limits = ExecutionLimits.ofSeconds(cpuSeconds, wallSeconds, idleSeconds);
+    }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
-        stopProcess(session.getId());
+        // Don't kill the program: the client may come back with RESUME
+        sessions.detach(session);
+        // A REPL's state is tied to its socket
+        replSessions.close(session);
     }
 
     @Override
@@ -33,108 +66,113 @@ public class TerminalWebSocketHandler extends TextWebSocketHandler {
         // 1. RUN COMMAND: Client sends "RUN:<code>"
         if (payload.startsWith("RUN:")) {
             String code = payload.substring(4);
-            runCode(session, code);
+            String key = (String) session.getAttributes().get(RateLimitKeys.ATTRIBUTE);
+            String rejection = checkRunAllowed(key);
+            if (rejection != null) {
+                send(session, "ERROR:" + rejection);
+                return;
+            }
+            runCode(sessions.create(session), code, key);
         }
         // 2. INPUT COMMAND: Client sends "INPUT:<data>"
         else if (payload.startsWith("INPUT:")) {
             String inputData = payload.substring(6);
-            sendInputToProcess(session.getId(), inputData);
+            TerminalSession terminal = sessions.forSocket(session);
+            if (terminal != null) {
+                terminal.sendInput(inputData);
+            } else {
+                replSessions.sendInput(session, inputData);
+            }
+        }
+        // 3. RESUME COMMAND: Client sends "RESUME:<token>:<offset>" after a dropped connection
+        else if (payload.startsWith("RESUME:")) {
+            String[] parts = payload.substring(7).split(":", 2);
+            long offset = parts.length > 1 ? parseOffset(parts[1]) : 0;
+            if (!sessions.resume(parts[0], session, offset)) {
+                send(session, "EXPIRED:Session is no longer available");
+            }
+        }
+        // 4. STOP COMMAND: Client is done with the program, skip the grace period
+        else if (payload.equals("STOP")) {
+            sessions.discard(session);
+        }
+        // 5. REPL COMMAND: Client sends "REPL:<source>", evaluated incrementally in a long-lived JShell
+        else if (payload.startsWith("REPL:")) {
+            String key = (String) session.getAttributes().get(RateLimitKeys.ATTRIBUTE);
+            if (key != null && !cpuQuota.hasRemaining(key)) {
+                send(session, "ERROR:Daily execution time quota used up. Try again tomorrow.");
+                return;
+            }
+            // Starting a JShell launches a JVM, so a new session costs a run like RUN: does
+            replSessions.evaluate(session, payload.substring(5), key, () -> checkRunAllowed(key));
+        }
+        // 6. REPL_RESET COMMAND: Throw away all REPL definitions and state
+        else if (payload.equals("REPL_RESET")) {
+            replSessions.close(session);
         }
     }
 
-    private void runCode(WebSocketSession session, String code) {
-        Thread thread = new Thread(() -> {
-            Path tempDir = null;
-            try {
-                // A. Setup
-                tempDir = Files.createTempDirectory("java-ws-");
-                sessionTempDirs.put(session.getId(), tempDir);
-
-                String className = extractClassName(code);
-                if (className == null) {
-                    session.sendMessage(new TextMessage("ERROR:No public class found"));
-                    return;
-                }
-
-                Path javaFile = tempDir.resolve(className + ".java");
-                Files.write(javaFile, code.getBytes());
-
-                // B. Compile
-                JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-                if (compiler == null) {
-                    session.sendMessage(new TextMessage("ERROR:Server JDK missing"));
-                    return;
-                }
-
-                ByteArrayOutputStream errStream = new ByteArrayOutputStream();
-                int result = compiler.run(null, null, errStream, javaFile.toString());
+    // Same limits as the REST compile endpoint; the handshake interceptor already resolved the key
+    private String checkRunAllowed(String key) {
+        if (key == null) {
+            return null;
+        }
+        TokenBucket.Probe probe = rateLimiter.tryConsume(RateLimitCategory.RUN, key);
+        if (!probe.isAllowed()) {
+            return "Too many runs. Please wait " + probe.getSecondsToWait() + "s and try again.";
+        }
+        if (!cpuQuota.hasRemaining(key)) {
+            return "Daily execution time quota used up. Try again tomorrow.";
+        }
+        return null;
+    }
 
-                if (result != 0) {
-                    session.sendMessage(new TextMessage("ERROR:Compilation Failed:\n" + errStream.toString()));
-                    return;
-                }
+    private void runCode(TerminalSession terminal, String code, String quotaKey) {
+        // Compile + run happens on the execution backend (this node or a remote worker)
+        terminal.setExecution(executionBackend.submit(new ExecutionJob(code, limits), new ExecutionListener() {
+            @Override
+            public void onOutput(String chunk) {
+                // Output keeps flowing into the replay buffer even while no client is attached
+                terminal.appendOutput(chunk);
+            }
 
-                // C. Run Process
-                ProcessBuilder pb = new ProcessBuilder("java", "-cp", tempDir.toString(), className);
-                pb.redirectErrorStream(true); // Merge stdout and stderr
-                Process process = pb.start();
-                activeProcesses.put(session.getId(), process);
-
-                // Start thread to read Output and send to Client
-                InputStream is = process.getInputStream();
-                byte[] buffer = new byte[1024];
-                int read;
-                while ((read = is.read(buffer)) != -1) {
-                    if (!session.isOpen()) break;
-                    String output = new String(buffer, 0, read);
-                    session.sendMessage(new TextMessage("OUTPUT:" + output));
-                }
+            @Override
+            public void onCompileError(String diagnostics) {
+                eventLog.record(ExecutionEvent.compileError(ExecutionEvent.SOURCE_TERMINAL, quotaKey, code));
+                terminal.finish("ERROR:Compilation Failed:\n" + diagnostics);
+            }
 
-                // Wait for exit
-                int exitCode = process.waitFor();
-                if (session.isOpen()) {
-                    session.sendMessage(new TextMessage("EXIT:Program finished with exit code " + exitCode));
+            @Override
+            public void onExit(ExecutionOutcome outcome) {
+                cpuQuota.record(quotaKey, outcome.getChargeableMillis());
+                eventLog.record(ExecutionEvent.finished(ExecutionEvent.SOURCE_TERMINAL, quotaKey, code, outcome));
+                if (outcome.getLimitExceeded() != null) {
+                    terminal.finish("EXIT:Program stopped: " + limits.describe(outcome.getLimitExceeded()));
+                } else {
+                    terminal.finish("EXIT:Program finished with exit code " + outcome.getExitCode());
                 }
-
-            } catch (Exception e) {
-                try {
-                    if (session.isOpen()) session.sendMessage(new TextMessage("ERROR:" + e.getMessage()));
-                } catch (IOException ignored) {}
-            } finally {
-                stopProcess(session.getId());
             }
-        });
-        thread.start();
-    }
 
-    private void sendInputToProcess(String sessionId, String input) {
-        Process process = activeProcesses.get(sessionId);
-        if (process != null && process.isAlive()) {
-            try {
-                OutputStream os = process.getOutputStream();
-                os.write((input + "\n").getBytes()); // Append newline!
-                os.flush();
-            } catch (IOException e) {
-                e.printStackTrace();
+            @Override
+            public void onFailure(String message) {
+                eventLog.record(ExecutionEvent.failure(ExecutionEvent.SOURCE_TERMINAL, quotaKey, code));
+                terminal.finish("ERROR:" + message);
             }
-        }
+        }));
     }
 
-    private void stopProcess(String sessionId) {
-        Process process = activeProcesses.remove(sessionId);
-        if (process != null && process.isAlive()) {
-            process.destroyForcibly();
-        }
-        Path tempDir = sessionTempDirs.remove(sessionId);
-        if (tempDir != null) {
-            try {
-                Files.walk(tempDir).sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
-            } catch (IOException ignored) {}
+    // Same lock as TerminalSession and the REPL: a socket must not be written by two threads at once
+    private void send(WebSocketSession session, String message) throws IOException {
+        synchronized (session) {
+            session.sendMessage(new TextMessage(message));
         }
     }
 
-    private String extractClassName(String code) {
-        Matcher m = Pattern.compile("public\\s+class\\s+(\\w+)").matcher(code);
-        return m.find() ? m.group(1) : null;
+    private long parseOffset(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
     }
-}
\ No newline at end of file
+}
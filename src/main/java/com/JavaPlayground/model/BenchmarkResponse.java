@@ -0,0 +1,111 @@
+package com.JavaPlayground.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BenchmarkResponse {
+    private boolean success;
+    private String error;
+    private String output; // Anything the benchmark methods printed themselves
+    private int forks;
+    private int warmupIterations;
+    private int measurementIterations;
+    private long iterationMillis; // Chosen by the harness to fit the time budget
+    private List<Result> results = new ArrayList<>();
+
+    public boolean isSuccess() {
+        return success;
+    }
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+    public String getError() {
+        return error;
+    }
+    public void setError(String error) {
+        this.error = error;
+    }
+    public String getOutput() {
+        return output;
+    }
+    public void setOutput(String output) {
+        this.output = output;
+    }
+    public int getForks() {
+        return forks;
+    }
+    public void setForks(int forks) {
+        this.forks = forks;
+    }
+    public int getWarmupIterations() {
+        return warmupIterations;
+    }
+    public void setWarmupIterations(int warmupIterations) {
+        this.warmupIterations = warmupIterations;
+    }
+    public int getMeasurementIterations() {
+        return measurementIterations;
+    }
+    public void setMeasurementIterations(int measurementIterations) {
+        this.measurementIterations = measurementIterations;
+    }
+    public long getIterationMillis() {
+        return iterationMillis;
+    }
+    public void setIterationMillis(long iterationMillis) {
+        this.iterationMillis = iterationMillis;
+    }
+    public List<Result> getResults() {
+        return results;
+    }
+    public void setResults(List<Result> results) {
+        this.results = results;
+    }
+
+    /** Scores for one bench method, over every measured iteration of every fork. */
+    public static class Result {
+        private String method;
+        private double meanNanosPerOp;
+        private double errorNanosPerOp; // Half-width of the 99.9% confidence interval
+        private double throughputOpsPerSecond;
+        private int iterations;
+        private int failedForks;
+
+        public String getMethod() {
+            return method;
+        }
+        public void setMethod(String method) {
+            this.method = method;
+        }
+        public double getMeanNanosPerOp() {
+            return meanNanosPerOp;
+        }
+        public void setMeanNanosPerOp(double meanNanosPerOp) {
+            this.meanNanosPerOp = meanNanosPerOp;
+        }
+        public double getErrorNanosPerOp() {
+            return errorNanosPerOp;
+        }
+        public void setErrorNanosPerOp(double errorNanosPerOp) {
+            this.errorNanosPerOp = errorNanosPerOp;
+        }
+        public double getThroughputOpsPerSecond() {
+            return throughputOpsPerSecond;
+        }
+        public void setThroughputOpsPerSecond(double throughputOpsPerSecond) {
+            this.throughputOpsPerSecond = throughputOpsPerSecond;
+        }
+        public int getIterations() {
+            return iterations;
+        }
+        public void setIterations(int iterations) {
+            this.iterations = iterations;
+        }
+        public int getFailedForks() {
+            return failedForks;
+        }
+        public void setFailedForks(int failedForks) {
+            this.failedForks = failedForks;
+        }
+    }
+}
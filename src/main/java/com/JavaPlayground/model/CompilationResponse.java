@@ -4,6 +4,10 @@ public class CompilationResponse {
     private String output;
     private boolean success;
     private String error;
+    private boolean cached; // Output replayed from the result cache, program was not run
+    private ProfileReport profile; // Set for profiled runs
+    private String limitExceeded; // CPU, WALL_CLOCK or IDLE when the program was stopped by a limit
+    private long cpuMillis; // CPU time the program used
 
     public String getOutput() {
         return output;
@@ -23,4 +27,28 @@ public class CompilationResponse {
     public void setError(String error) {
         this.error = error;
     }
+    public boolean isCached() {
+        return cached;
+    }
+    public void setCached(boolean cached) {
+        this.cached = cached;
+    }
+    public ProfileReport getProfile() {
+        return profile;
+    }
+    public void setProfile(ProfileReport profile) {
+        this.profile = profile;
+    }
+    public String getLimitExceeded() {
+        return limitExceeded;
+    }
+    public void setLimitExceeded(String limitExceeded) {
+        this.limitExceeded = limitExceeded;
+    }
+    public long getCpuMillis() {
+        return cpuMillis;
+    }
+    public void setCpuMillis(long cpuMillis) {
+        this.cpuMillis = cpuMillis;
+    }
 }
@@ -0,0 +1,43 @@
+package com.JavaPlayground.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DiagnosticsResponse {
+    private List<SourceDiagnostic> diagnostics = new ArrayList<>();
+    private boolean superseded; // A newer request from the same editor replaced this one; ignore it
+    private boolean busy; // No compiler slot freed up in time; the next keystroke will try again
+    private String error; // Request refused (too large, rate limited)
+    private long elapsedMillis;
+
+    public List<SourceDiagnostic> getDiagnostics() {
+        return diagnostics;
+    }
+    public void setDiagnostics(List<SourceDiagnostic> diagnostics) {
+        this.diagnostics = diagnostics;
+    }
+    public boolean isSuperseded() {
+        return superseded;
+    }
+    public void setSuperseded(boolean superseded) {
+        this.superseded = superseded;
+    }
+    public boolean isBusy() {
+        return busy;
+    }
+    public void setBusy(boolean busy) {
+        this.busy = busy;
+    }
+    public String getError() {
+        return error;
+    }
+    public void setError(String error) {
+        this.error = error;
+    }
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+}
@@ -0,0 +1,62 @@
+package com.JavaPlayground.model;
+
+/** Executions in one UTC hour, for capacity planning. */
+public class HourlyLoad {
+    private String hour; // "yyyy-MM-dd HH:00", UTC
+    private long runs;
+    private long failures; // Anything but a clean exit: compile errors, exceptions, limit kills
+    private long limitKills;
+    private long cacheHits; // Answered from the result cache, without running anything
+    private long users;
+    private long cpuMillis;
+    private long avgWallMillis;
+
+    public String getHour() {
+        return hour;
+    }
+    public void setHour(String hour) {
+        this.hour = hour;
+    }
+    public long getRuns() {
+        return runs;
+    }
+    public void setRuns(long runs) {
+        this.runs = runs;
+    }
+    public long getFailures() {
+        return failures;
+    }
+    public void setFailures(long failures) {
+        this.failures = failures;
+    }
+    public long getLimitKills() {
+        return limitKills;
+    }
+    public void setLimitKills(long limitKills) {
+        this.limitKills = limitKills;
+    }
+    public long getCacheHits() {
+        return cacheHits;
+    }
+    public void setCacheHits(long cacheHits) {
+        this.cacheHits = cacheHits;
+    }
+    public long getUsers() {
+        return users;
+    }
+    public void setUsers(long users) {
+        this.users = users;
+    }
+    public long getCpuMillis() {
+        return cpuMillis;
+    }
+    public void setCpuMillis(long cpuMillis) {
+        this.cpuMillis = cpuMillis;
+    }
+    public long getAvgWallMillis() {
+        return avgWallMillis;
+    }
+    public void setAvgWallMillis(long avgWallMillis) {
+        this.avgWallMillis = avgWallMillis;
+    }
+}
@@ -0,0 +1,101 @@
+package com.JavaPlayground.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/** What JDK Flight Recorder saw while the user's program ran. */
+public class ProfileReport implements Serializable {
+
+    private List<HotMethod> hotMethods = new ArrayList<>();
+    private List<Allocation> allocations = new ArrayList<>();
+    private int gcCount;
+    private double gcTotalPauseMillis;
+    private double gcMaxPauseMillis;
+    private long peakHeapBytes;
+    private boolean peakHeapEstimated; // No GC ran, so peakHeapBytes is the sampled allocation total
+
+    public List<HotMethod> getHotMethods() {
+        return hotMethods;
+    }
+    public void setHotMethods(List<HotMethod> hotMethods) {
+        this.hotMethods = hotMethods;
+    }
+    public List<Allocation> getAllocations() {
+        return allocations;
+    }
+    public void setAllocations(List<Allocation> allocations) {
+        this.allocations = allocations;
+    }
+    public int getGcCount() {
+        return gcCount;
+    }
+    public void setGcCount(int gcCount) {
+        this.gcCount = gcCount;
+    }
+    public double getGcTotalPauseMillis() {
+        return gcTotalPauseMillis;
+    }
+    public void setGcTotalPauseMillis(double gcTotalPauseMillis) {
+        this.gcTotalPauseMillis = gcTotalPauseMillis;
+    }
+    public double getGcMaxPauseMillis() {
+        return gcMaxPauseMillis;
+    }
+    public void setGcMaxPauseMillis(double gcMaxPauseMillis) {
+        this.gcMaxPauseMillis = gcMaxPauseMillis;
+    }
+    public long getPeakHeapBytes() {
+        return peakHeapBytes;
+    }
+    public void setPeakHeapBytes(long peakHeapBytes) {
+        this.peakHeapBytes = peakHeapBytes;
+    }
+    public boolean isPeakHeapEstimated() {
+        return peakHeapEstimated;
+    }
+    public void setPeakHeapEstimated(boolean peakHeapEstimated) {
+        this.peakHeapEstimated = peakHeapEstimated;
+    }
+
+    /** A method that was on top of the stack in CPU samples. */
+    public static class HotMethod implements Serializable {
+        private final String method;
+        private final long samples;
+        private final double percent;
+
+        public HotMethod(String method, long samples, double percent) {
+            this.method = method;
+            this.samples = samples;
+            this.percent = percent;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+        public long getSamples() {
+            return samples;
+        }
+        public double getPercent() {
+            return percent;
+        }
+    }
+
+    /** Estimated bytes allocated for one type (from JFR's allocation sampling). */
+    public static class Allocation implements Serializable {
+        private final String type;
+        private final long bytes;
+
+        public Allocation(String type, long bytes) {
+            this.type = type;
+            this.bytes = bytes;
+        }
+
+        public String getType() {
+            return type;
+        }
+        public long getBytes() {
+            return bytes;
+        }
+    }
+}
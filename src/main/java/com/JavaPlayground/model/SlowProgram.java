@@ -0,0 +1,55 @@
+package com.JavaPlayground.model;
+
+/** One program (identified by the SHA-256 of its code) and how expensive its runs were. */
+public class SlowProgram {
+    private String codeHash;
+    private long runs;
+    private int codeChars;
+    private long avgCpuMillis;
+    private long maxCpuMillis;
+    private long maxWallMillis;
+    private long limitKills;
+
+    public String getCodeHash() {
+        return codeHash;
+    }
+    public void setCodeHash(String codeHash) {
+        this.codeHash = codeHash;
+    }
+    public long getRuns() {
+        return runs;
+    }
+    public void setRuns(long runs) {
+        this.runs = runs;
+    }
+    public int getCodeChars() {
+        return codeChars;
+    }
+    public void setCodeChars(int codeChars) {
+        this.codeChars = codeChars;
+    }
+    public long getAvgCpuMillis() {
+        return avgCpuMillis;
+    }
+    public void setAvgCpuMillis(long avgCpuMillis) {
+        this.avgCpuMillis = avgCpuMillis;
+    }
+    public long getMaxCpuMillis() {
+        return maxCpuMillis;
+    }
+    public void setMaxCpuMillis(long maxCpuMillis) {
+        this.maxCpuMillis = maxCpuMillis;
+    }
+    public long getMaxWallMillis() {
+        return maxWallMillis;
+    }
+    public void setMaxWallMillis(long maxWallMillis) {
+        this.maxWallMillis = maxWallMillis;
+    }
+    public long getLimitKills() {
+        return limitKills;
+    }
+    public void setLimitKills(long limitKills) {
+        this.limitKills = limitKills;
+    }
+}
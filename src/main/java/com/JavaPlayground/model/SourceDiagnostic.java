@@ -0,0 +1,58 @@
+package com.JavaPlayground.model;
+
+/**
+ * One compiler message with its source range. Lines and columns are 1-based
+ * like javac's; they are 0 when the message isn't tied to a position.
+ */
+public class SourceDiagnostic {
+    private String severity; // "error", "warning" or "note"
+    private String code; // javac key, e.g. compiler.err.cant.resolve.location
+    private String message;
+    private long line;
+    private long column;
+    private long endLine;
+    private long endColumn;
+
+    public String getSeverity() {
+        return severity;
+    }
+    public void setSeverity(String severity) {
+        this.severity = severity;
+    }
+    public String getCode() {
+        return code;
+    }
+    public void setCode(String code) {
+        this.code = code;
+    }
+    public String getMessage() {
+        return message;
+    }
+    public void setMessage(String message) {
+        this.message = message;
+    }
+    public long getLine() {
+        return line;
+    }
+    public void setLine(long line) {
+        this.line = line;
+    }
+    public long getColumn() {
+        return column;
+    }
+    public void setColumn(long column) {
+        this.column = column;
+    }
+    public long getEndLine() {
+        return endLine;
+    }
+    public void setEndLine(long endLine) {
+        this.endLine = endLine;
+    }
+    public long getEndColumn() {
+        return endColumn;
+    }
+    public void setEndColumn(long endColumn) {
+        this.endColumn = endColumn;
+    }
+}
@@ -5,7 +5,12 @@ import jakarta.persistence.*;
 @Entity
 @Table(
     name = "users",
-    uniqueConstraints = @UniqueConstraint(columnNames = {"email", "provider"})
+    uniqueConstraints = @UniqueConstraint(name = "uk_users_email_provider", columnNames = {"email", "provider"}),
+    // Created by Flyway (db/migration/V2), declared here so the mapping documents them
+    indexes = {
+        @Index(name = "idx_users_name", columnList = "name"),
+        @Index(name = "idx_users_provider_provider_id", columnList = "provider, provider_id")
+    }
 )
 public class User {
 
@@ -0,0 +1,71 @@
+package com.JavaPlayground.ratelimit;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Daily execution-time budget per client key, fed with the measured run time
+ * of every program. Resets at midnight UTC.
+ */
+@Service
+public class CpuQuotaService {
+
+    private final long dailyMillis;
+    private final Clock clock;
+    private final Map<String, AtomicLong> usedMillis = new ConcurrentHashMap<>();
+    private volatile LocalDate day;
+
+    @Autowired
+    public CpuQuotaService(@Value("${ratelimit.cpu-seconds-per-day:600}") long dailySeconds) {
+        this(dailySeconds, Clock.systemUTC());
+    }
+
+    // Tests move the clock past midnight
+    CpuQuotaService(long dailySeconds, Clock clock) {
+        this.dailyMillis = dailySeconds * 1000;
+        this.clock = clock;
+        this.day = today();
+    }
+
+    public boolean hasRemaining(String key) {
+        return remainingMillis(key) > 0;
+    }
+
+    public long remainingMillis(String key) {
+        rollOver();
+        AtomicLong used = usedMillis.get(key);
+        return Math.max(0, dailyMillis - (used != null ? used.get() : 0));
+    }
+
+    public void record(String key, long millis) {
+        if (key == null || millis <= 0) {
+            return;
+        }
+        rollOver();
+        usedMillis.computeIfAbsent(key, k -> new AtomicLong()).addAndGet(millis);
+    }
+
+    private void rollOver() {
+        LocalDate now = today();
+        if (!now.equals(day)) {
+            synchronized (this) {
+                if (!now.equals(day)) {
+                    usedMillis.clear();
+                    day = now;
+                }
+            }
+        }
+    }
+
+    private LocalDate today() {
+        return LocalDate.ofInstant(clock.instant(), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,19 @@
+package com.JavaPlayground.ratelimit;
+
+/** Each category has its own limits, so AI calls can't eat the compile budget. */
+public enum RateLimitCategory {
+    COMPILE("compile"),
+    RUN("run"),
+    AI("ai"),
+    DIAGNOSTICS("diagnostics");
+
+    private final String propertyName;
+
+    RateLimitCategory(String propertyName) {
+        this.propertyName = propertyName;
+    }
+
+    public String getPropertyName() {
+        return propertyName;
+    }
+}
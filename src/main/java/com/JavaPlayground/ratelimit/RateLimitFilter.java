@@ -0,0 +1,88 @@
+package com.JavaPlayground.ratelimit;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Throttles the expensive REST endpoints (javac + JVM spawns, Gemini calls).
+ * Runs after the Spring Security chain, so a logged-in user is charged as a
+ * user and anonymous clients by IP.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final CpuQuotaService cpuQuota;
+
+    public RateLimitFilter(RateLimiter rateLimiter, CpuQuotaService cpuQuota) {
+        this.rateLimiter = rateLimiter;
+        this.cpuQuota = cpuQuota;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return categoryFor(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RateLimitCategory category = categoryFor(request);
+        String key = RateLimitKeys.resolve(request.getUserPrincipal(), request.getRemoteAddr());
+        request.setAttribute(RateLimitKeys.ATTRIBUTE, key);
+
+        TokenBucket.Probe probe = rateLimiter.tryConsume(category, key);
+        response.setHeader("X-RateLimit-Limit", String.valueOf(rateLimiter.getCapacity(category)));
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(probe.getRemaining()));
+        response.setHeader("X-RateLimit-Reset", String.valueOf(probe.getSecondsToWait()));
+
+        if (!probe.isAllowed()) {
+            reject(response, probe.getSecondsToWait(), "Too many requests. Please wait a moment and try again.");
+            return;
+        }
+        if (category == RateLimitCategory.COMPILE && !cpuQuota.hasRemaining(key)) {
+            reject(response, secondsUntilMidnightUtc(), "Daily execution time quota used up. Try again tomorrow.");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private RateLimitCategory categoryFor(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return null;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.equals("/api/compile") || path.equals("/api/benchmark")) {
+            return RateLimitCategory.COMPILE;
+        }
+        if (path.equals("/api/diagnostics")) {
+            return RateLimitCategory.DIAGNOSTICS;
+        }
+        if (path.startsWith("/api/gemini/")) {
+            return RateLimitCategory.AI;
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterSeconds, String message) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        // Same shape as CompilationResponse so existing clients show the message
+        response.getWriter().write("{\"success\":false,\"error\":\"" + message + "\"}");
+    }
+
+    static long secondsUntilMidnightUtc() {
+        long now = System.currentTimeMillis() / 1000;
+        return 86_400 - (now % 86_400);
+    }
+}
@@ -0,0 +1,48 @@
+package com.JavaPlayground.ratelimit;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+/**
+ * Resolves the rate-limit key for a /terminal socket and hands it to the
+ * handler through the session attributes. The handshake itself is never
+ * refused: a client coming back with RESUME after a dropped connection must
+ * reach its running program even when its budget is used up. The limits are
+ * enforced per command instead (RUN, and REPL when it starts a session).
+ */
+@Component
+public class RateLimitHandshakeInterceptor implements HandshakeInterceptor {
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitHandshakeInterceptor(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+            WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        String key = RateLimitKeys.resolve(request.getPrincipal(),
+                remote != null ? remote.getAddress().getHostAddress() : "unknown");
+        attributes.put(RateLimitKeys.ATTRIBUTE, key);
+
+        // Informational only, so the client can tell a RUN is about to be refused
+        TokenBucket.Probe probe = rateLimiter.peek(RateLimitCategory.RUN, key);
+        response.getHeaders().set("X-RateLimit-Limit", String.valueOf(rateLimiter.getCapacity(RateLimitCategory.RUN)));
+        response.getHeaders().set("X-RateLimit-Remaining", String.valueOf(probe.getRemaining()));
+        response.getHeaders().set("X-RateLimit-Reset", String.valueOf(probe.getSecondsToWait()));
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+            WebSocketHandler wsHandler, Exception exception) {
+    }
+}
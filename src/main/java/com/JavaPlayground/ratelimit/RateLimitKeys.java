@@ -0,0 +1,30 @@
+package com.JavaPlayground.ratelimit;
+
+import java.security.Principal;
+
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+
+/**
+ * Who a request is charged to: the logged-in user if there is one, otherwise
+ * the client IP (after forwarded headers are applied, see server.forward-headers-strategy).
+ * User keys include the OAuth provider, since Google and GitHub ids can coincide.
+ */
+public final class RateLimitKeys {
+
+    /** Request/handshake attribute holding the resolved key for downstream code. */
+    public static final String ATTRIBUTE = "rateLimitKey";
+
+    private RateLimitKeys() {
+    }
+
+    public static String resolve(Principal principal, String remoteAddress) {
+        if (principal != null && principal.getName() != null) {
+            if (principal instanceof OAuth2AuthenticationToken) {
+                String provider = ((OAuth2AuthenticationToken) principal).getAuthorizedClientRegistrationId();
+                return "user:" + provider + ":" + principal.getName();
+            }
+            return "user:" + principal.getName();
+        }
+        return "ip:" + remoteAddress;
+    }
+}
@@ -0,0 +1,70 @@
+package com.JavaPlayground.ratelimit;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Token buckets per (category, client key). Limits are read from
+ * {@code ratelimit.<category>.capacity} and {@code ratelimit.<category>.per-minute}.
+ * ConcurrentHashMap gives us striped access per key; the buckets themselves are lock-free.
+ */
+@Component
+public class RateLimiter {
+
+    private final Map<RateLimitCategory, Map<String, TokenBucket>> buckets = new EnumMap<>(RateLimitCategory.class);
+    private final Map<RateLimitCategory, long[]> limits = new EnumMap<>(RateLimitCategory.class);
+    private final ScheduledExecutorService cleaner;
+
+    public RateLimiter(Environment env) {
+        for (RateLimitCategory category : RateLimitCategory.values()) {
+            String prefix = "ratelimit." + category.getPropertyName();
+            long capacity = env.getProperty(prefix + ".capacity", Long.class, 10L);
+            long perMinute = env.getProperty(prefix + ".per-minute", Long.class, capacity);
+            limits.put(category, new long[] { capacity, perMinute });
+            buckets.put(category, new ConcurrentHashMap<>());
+        }
+        this.cleaner = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "rate-limit-cleaner");
+            t.setDaemon(true);
+            return t;
+        });
+        this.cleaner.scheduleWithFixedDelay(this::evictFullBuckets, 1, 1, TimeUnit.MINUTES);
+    }
+
+    public TokenBucket.Probe tryConsume(RateLimitCategory category, String key) {
+        return bucket(category, key).tryConsume();
+    }
+
+    public TokenBucket.Probe peek(RateLimitCategory category, String key) {
+        TokenBucket bucket = buckets.get(category).get(key);
+        return bucket != null ? bucket.peek() : bucket(category, key).peek();
+    }
+
+    public long getCapacity(RateLimitCategory category) {
+        return limits.get(category)[0];
+    }
+
+    private TokenBucket bucket(RateLimitCategory category, String key) {
+        long[] limit = limits.get(category);
+        return buckets.get(category).computeIfAbsent(key, k -> new TokenBucket(limit[0], limit[1]));
+    }
+
+    // A full bucket is the same as no bucket, so idle clients don't pile up in memory
+    private void evictFullBuckets() {
+        buckets.values().forEach(map -> map.values().removeIf(TokenBucket::isFull));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleaner.shutdownNow();
+    }
+}
@@ -0,0 +1,103 @@
+package com.JavaPlayground.ratelimit;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket. The whole state (tokens + last refill time) is one
+ * immutable snapshot swapped with compare-and-set, so concurrent requests for
+ * the same key never block each other.
+ */
+public class TokenBucket {
+
+    private final long capacity;
+    private final double tokensPerNano;
+    private final LongSupplier nanoClock;
+    private final AtomicReference<State> state;
+
+    public TokenBucket(long capacity, long refillPerMinute) {
+        this(capacity, refillPerMinute, System::nanoTime);
+    }
+
+    // Tests drive the clock by hand
+    TokenBucket(long capacity, long refillPerMinute, LongSupplier nanoClock) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / 60_000_000_000d;
+        this.nanoClock = nanoClock;
+        this.state = new AtomicReference<>(new State(capacity, nanoClock.getAsLong()));
+    }
+
+    /** Takes one token if there is one. */
+    public Probe tryConsume() {
+        while (true) {
+            State current = state.get();
+            long now = nanoClock.getAsLong();
+            double tokens = refill(current, now);
+            if (tokens < 1) {
+                return new Probe(false, 0, nanosUntil(1 - tokens));
+            }
+            if (state.compareAndSet(current, new State(tokens - 1, now))) {
+                return new Probe(true, (long) (tokens - 1), nanosUntil(capacity - (tokens - 1)));
+            }
+        }
+    }
+
+    /** Looks at the bucket without taking anything. */
+    public Probe peek() {
+        State current = state.get();
+        double tokens = refill(current, nanoClock.getAsLong());
+        return new Probe(tokens >= 1, (long) tokens, nanosUntil(tokens >= 1 ? capacity - tokens : 1 - tokens));
+    }
+
+    /** A full bucket carries no information and can be dropped. */
+    public boolean isFull() {
+        return refill(state.get(), nanoClock.getAsLong()) >= capacity;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    private double refill(State s, long now) {
+        return Math.min(capacity, s.tokens + (now - s.timestamp) * tokensPerNano);
+    }
+
+    private long nanosUntil(double missingTokens) {
+        return tokensPerNano > 0 ? (long) Math.ceil(missingTokens / tokensPerNano) : Long.MAX_VALUE;
+    }
+
+    private static final class State {
+        final double tokens;
+        final long timestamp;
+
+        State(double tokens, long timestamp) {
+            this.tokens = tokens;
+            this.timestamp = timestamp;
+        }
+    }
+
+    /** Result of a bucket check, with what we need for the rate-limit headers. */
+    public static final class Probe {
+        private final boolean allowed;
+        private final long remaining;
+        private final long nanosToWait; // Until the next token (denied) or a full bucket (allowed)
+
+        Probe(boolean allowed, long remaining, long nanosToWait) {
+            this.allowed = allowed;
+            this.remaining = remaining;
+            this.nanosToWait = nanosToWait;
+        }
+
+        public boolean isAllowed() {
+            return allowed;
+        }
+
+        public long getRemaining() {
+            return remaining;
+        }
+
+        public long getSecondsToWait() {
+            return Math.max(1, (nanosToWait + 999_999_999L) / 1_000_000_000L);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.JavaPlayground.repl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import jdk.jshell.Diag;
+import jdk.jshell.JShell;
+import jdk.jshell.Snippet;
+import jdk.jshell.SnippetEvent;
+import jdk.jshell.SourceCodeAnalysis;
+
+/**
+ * One student's long-lived JShell. Definitions and variable state survive
+ * between evaluations, and declarations whose source hasn't changed are not
+ * recompiled, so re-sending the whole editor after a one-line edit only costs
+ * the changed snippet plus the call to {@code main}.
+ *
+ * User code runs in a separate JVM launched by JShell (capped with -Xmx);
+ * only the compiler side lives in our process.
+ */
+public class ReplSession implements AutoCloseable {
+
+    private static final Pattern MAIN_CLASS = Pattern.compile(
+            "class\\s+(\\w+)[^{]*\\{[\\s\\S]*?static\\s+void\\s+main\\s*\\(");
+    private static final long KILL_GRACE_MILLIS = 2000;
+
+    private final JShell jshell;
+    private final Consumer<String> output;
+    private final PipedOutputStream stdin;
+    private final Map<String, Snippet> declarations = new HashMap<>(); // Source -> snippet it defined
+    private volatile long lastUsed = System.currentTimeMillis();
+    private volatile boolean stopped; // Set by stop(): skip whatever is left of the current evaluation
+    private volatile boolean closed;
+
+    // Finds the remote JVM among our child processes, so its CPU time can be charged
+    private final String marker = "-Dplayground.repl.session=" + UUID.randomUUID();
+    private volatile ProcessHandle remoteVm;
+    private final AtomicLong cpuMillis = new AtomicLong(); // Latest reading, kept once the remote JVM is gone
+    private final AtomicLong chargedCpuMillis = new AtomicLong();
+
+    public ReplSession(Consumer<String> output, int memoryMb) throws IOException {
+        this.output = output;
+        this.stdin = new PipedOutputStream();
+        PrintStream programOut = new PrintStream(new ForwardingStream(output), true);
+        this.jshell = JShell.builder()
+                .in(new PipedInputStream(stdin))
+                .out(programOut)
+                .err(programOut)
+                .remoteVMOptions("-Xmx" + memoryMb + "m", marker)
+                .build();
+    }
+
+    /**
+     * Evaluates the source snippet by snippet. Returns the diagnostics of
+     * rejected snippets and uncaught exceptions, or an empty list.
+     *
+     * The whole evaluation, not each snippet, gets {@code timeoutMillis}: the
+     * clock starts once we hold the session (a queued evaluation doesn't lose
+     * time waiting), and once it runs out the snippets that are left are skipped.
+     * Code that ignores the stop request is dealt with by closing the session
+     * (which kills the remote JVM); check {@link #isClosed()} afterwards.
+     */
+    public synchronized List<String> evaluate(String source, ScheduledExecutorService scheduler, long timeoutMillis) {
+        if (closed) {
+            throw new IllegalStateException("session was closed"); // e.g. killed while this evaluation queued
+        }
+        lastUsed = System.currentTimeMillis();
+        stopped = false;
+        ScheduledFuture<?> watchdog = scheduler.schedule(this::stop, timeoutMillis, TimeUnit.MILLISECONDS);
+        // JShell's stop only gets through at some points (JDI Thread.stop); a tight loop can ignore it
+        ScheduledFuture<?> killer = scheduler.schedule(this::close, timeoutMillis + KILL_GRACE_MILLIS,
+                TimeUnit.MILLISECONDS);
+        List<String> errors = new ArrayList<>();
+        try {
+            evaluateAll(source, errors);
+        } catch (IllegalStateException e) {
+            if (!closed) {
+                throw e;
+            } // else: the JShell was closed under us, reported below
+        } finally {
+            watchdog.cancel(false);
+            killer.cancel(false);
+            lastUsed = System.currentTimeMillis();
+        }
+        if (stopped) {
+            errors.add("Stopped after " + timeoutMillis / 1000 + "s. Is there an infinite loop, "
+                    + "or is the program waiting for input?"
+                    + (closed ? " The REPL had to be restarted, so earlier definitions are gone." : ""));
+        }
+        return errors;
+    }
+
+    private void evaluateAll(String source, List<String> errors) {
+        // 1. Split into complete snippets (imports, classes, methods, statements...)
+        SourceCodeAnalysis analysis = jshell.sourceCodeAnalysis();
+        String remaining = source;
+        while (!remaining.isBlank() && !stopped) {
+            SourceCodeAnalysis.CompletionInfo info = analysis.analyzeCompletion(remaining);
+            if (info.completeness() == SourceCodeAnalysis.Completeness.EMPTY) {
+                break; // Only comments/whitespace left
+            }
+            if (!info.completeness().isComplete()) {
+                errors.add("Incomplete input: " + firstLine(remaining));
+                break;
+            }
+            evaluateSnippet(info.source(), errors);
+            remaining = info.remaining();
+        }
+
+        // 2. Editor holds a regular program? Run its main like the normal Run button would
+        Matcher main = MAIN_CLASS.matcher(source);
+        if (errors.isEmpty() && !stopped && main.find()) {
+            evaluateSnippet(main.group(1) + ".main(new String[0]);", errors);
+        }
+    }
+
+    private void evaluateSnippet(String snippetSource, List<String> errors) {
+        String trimmed = snippetSource.strip();
+        // Unchanged declaration that is still the live definition: nothing to recompile
+        Snippet known = declarations.get(trimmed);
+        if (known != null && jshell.status(known) == Snippet.Status.VALID) {
+            return;
+        }
+        for (SnippetEvent event : jshell.eval(snippetSource)) {
+            Snippet snippet = event.snippet();
+            if (stopped) {
+                return; // Killed by the time limit; the exception says nothing useful
+            }
+            if (event.status() == Snippet.Status.REJECTED) {
+                jshell.diagnostics(snippet).forEach(d -> errors.add(format(d, snippet)));
+            } else if (event.exception() != null) {
+                errors.add("Exception: " + event.exception().getMessage());
+            } else if (event.causeSnippet() == null) {
+                if (isExpression(snippet) && event.value() != null) {
+                    output.accept(event.value() + "\n");
+                }
+                if (isDeclaration(snippet)) {
+                    declarations.put(trimmed, snippet);
+                }
+            }
+        }
+    }
+
+    /** Forwards a line typed in the terminal to the program's System.in. */
+    public void sendInput(String line) {
+        try {
+            stdin.write((line + "\n").getBytes());
+            stdin.flush();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /** Interrupts whatever the user's code is doing (infinite loops, waiting on input). */
+    public void stop() {
+        stopped = true;
+        if (!closed) {
+            jshell.stop();
+        }
+    }
+
+    /**
+     * CPU time the remote JVM used since the previous call, threads the user's
+     * code left running between evaluations included. Safe to call while an
+     * evaluation is running.
+     */
+    public long takeCpuMillis() {
+        long total = remoteCpuMillis();
+        long previous = chargedCpuMillis.getAndAccumulate(total, Math::max);
+        return Math.max(0, total - previous);
+    }
+
+    private long remoteCpuMillis() {
+        ProcessHandle vm = remoteVm;
+        if (vm == null) {
+            vm = ProcessHandle.current().descendants()
+                    .filter(h -> h.info().commandLine().map(line -> line.contains(marker)).orElse(false))
+                    .findFirst().orElse(null);
+            remoteVm = vm;
+        }
+        if (vm == null) {
+            return cpuMillis.get();
+        }
+        return vm.info().totalCpuDuration()
+                .map(cpu -> cpuMillis.accumulateAndGet(cpu.toMillis(), Math::max))
+                .orElse(cpuMillis.get());
+    }
+
+    public boolean isIdleLongerThan(long millis) {
+        return System.currentTimeMillis() - lastUsed > millis;
+    }
+
+    /** True once closed, including by the time limit of {@link #evaluate}; a closed session can't be reused. */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        remoteCpuMillis(); // Last reading while the remote JVM is still there
+        jshell.close();
+        try {
+            stdin.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    private static boolean isExpression(Snippet snippet) {
+        return snippet.kind() == Snippet.Kind.EXPRESSION
+                || snippet.subKind() == Snippet.SubKind.TEMP_VAR_EXPRESSION_SUBKIND; // e.g. "x + 1" -> $1
+    }
+
+    private static boolean isDeclaration(Snippet snippet) {
+        // Statements and expressions must run every time; declarations only when they change
+        return snippet.kind() == Snippet.Kind.IMPORT
+                || snippet.kind() == Snippet.Kind.TYPE_DECL
+                || snippet.kind() == Snippet.Kind.METHOD;
+    }
+
+    private static String format(Diag diag, Snippet snippet) {
+        String source = snippet.source();
+        long line = 1 + source.substring(0, (int) Math.min(diag.getStartPosition(), source.length()))
+                .chars().filter(c -> c == '\n').count();
+        return "Line " + line + " of snippet `" + firstLine(source) + "`: " + diag.getMessage(null);
+    }
+
+    private static String firstLine(String source) {
+        String s = source.strip();
+        int nl = s.indexOf('\n');
+        return nl < 0 ? s : s.substring(0, nl) + " ...";
+    }
+
+    // Hands everything the remote JVM prints to the socket as it arrives
+    private static class ForwardingStream extends OutputStream {
+
+        private final Consumer<String> sink;
+
+        ForwardingStream(Consumer<String> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (len > 0) {
+                sink.accept(new String(b, off, len));
+            }
+        }
+    }
+}
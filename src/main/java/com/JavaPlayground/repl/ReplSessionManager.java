@@ -0,0 +1,250 @@
+package com.JavaPlayground.repl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.JavaPlayground.ratelimit.CpuQuotaService;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Owns the JShell instances behind the terminal's REPL mode: one per socket,
+ * capped in number, evicted when idle, and every evaluation bounded in time.
+ * The remote JVM's CPU time is charged to the caller's quota, including what
+ * threads left running by the user's code burn between evaluations.
+ */
+@Component
+public class ReplSessionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplSessionManager.class);
+
+    private final Map<String, Slot> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger openSessions = new AtomicInteger();
+
+    private final CpuQuotaService cpuQuota;
+    private final int maxSessions;
+    private final int memoryMb;
+    private final long idleMillis;
+    private final long evalTimeoutSeconds;
+
+    private final ExecutorService evaluator = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "repl-eval");
+        t.setDaemon(true);
+        return t;
+    });
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "repl-watchdog");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ReplSessionManager(CpuQuotaService cpuQuota,
+            @Value("${repl.max-sessions:10}") int maxSessions,
+            @Value("${repl.memory-mb:128}") int memoryMb,
+            @Value("${repl.idle-minutes:10}") long idleMinutes,
+            @Value("${repl.eval-timeout-seconds:10}") long evalTimeoutSeconds) {
+        this.cpuQuota = cpuQuota;
+        this.maxSessions = maxSessions;
+        this.memoryMb = memoryMb;
+        this.idleMillis = TimeUnit.MINUTES.toMillis(idleMinutes);
+        this.evalTimeoutSeconds = evalTimeoutSeconds;
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                sweep();
+            } catch (RuntimeException e) {
+                log.warn("REPL sweep failed", e);
+            }
+        }, 5, 5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Evaluates source in the socket's REPL (starting one if needed) on a
+     * background thread. Replies with OUTPUT:/ERROR: messages and a final
+     * "REPL_DONE:<millis>". The remote JVM's CPU time is charged to
+     * {@code quotaKey} (null for no quota).
+     *
+     * @param admitNewSession asked only when a new JShell (and remote JVM) would
+     *                        be started; returns a rejection message, or null to go ahead
+     */
+    public void evaluate(WebSocketSession ws, String source, String quotaKey, Supplier<String> admitNewSession) {
+        evaluator.execute(() -> {
+            Slot slot;
+            ReplSession session;
+            try {
+                slot = slotFor(ws, quotaKey, admitNewSession);
+                session = slot.session.join();
+            } catch (CompletionException e) {
+                send(ws, "ERROR:" + e.getCause().getMessage()); // Another frame's attempt to start it failed
+                return;
+            } catch (RuntimeException e) {
+                send(ws, "ERROR:" + e.getMessage());
+                return;
+            }
+
+            // Infinite loops and forgotten input must not pin the JShell forever
+            long start = System.currentTimeMillis();
+            try {
+                List<String> errors = session.evaluate(source, scheduler, TimeUnit.SECONDS.toMillis(evalTimeoutSeconds));
+                if (!errors.isEmpty()) {
+                    send(ws, "ERROR:" + String.join("\n", errors));
+                }
+                if (session.isClosed()) {
+                    discard(slot); // Killed by the time limit: free the slot, the next REPL: starts fresh
+                }
+            } catch (Exception e) {
+                send(ws, "ERROR:REPL failed: " + e.getMessage());
+                discard(slot); // Broken JShell (e.g. remote VM ran out of memory): start fresh next time
+            }
+            charge(slot, session);
+            send(ws, "REPL_DONE:" + (System.currentTimeMillis() - start));
+        });
+    }
+
+    /** Routes terminal input to the socket's REPL. Returns false if it has none. */
+    public boolean sendInput(WebSocketSession ws, String line) {
+        Slot slot = sessions.get(ws.getId());
+        ReplSession session = slot != null ? slot.ready() : null;
+        if (session == null) {
+            return false;
+        }
+        session.sendInput(line);
+        return true;
+    }
+
+    public void close(WebSocketSession ws) {
+        Slot slot = sessions.get(ws.getId());
+        if (slot != null) {
+            discard(slot);
+        }
+    }
+
+    // Only if it is still the socket's slot: a fresh one may already have replaced it. A JShell
+    // still starting is closed as soon as it is up.
+    private void discard(Slot slot) {
+        if (sessions.remove(slot.ws.getId(), slot)) {
+            slot.session.thenAccept(session -> release(slot, session));
+        }
+    }
+
+    private void release(Slot slot, ReplSession session) {
+        openSessions.decrementAndGet();
+        session.stop();
+        session.close();
+        charge(slot, session);
+    }
+
+    // The first REPL: frame on a socket claims its slot; frames arriving meanwhile wait on the
+    // same future. The JShell is built outside the map, so other sockets are never held up.
+    private Slot slotFor(WebSocketSession ws, String quotaKey, Supplier<String> admitNewSession) {
+        Slot fresh = new Slot(ws, quotaKey);
+        Slot existing = sessions.putIfAbsent(ws.getId(), fresh);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            fresh.session.complete(startSession(ws, admitNewSession));
+        } catch (RuntimeException e) {
+            sessions.remove(ws.getId(), fresh);
+            fresh.session.completeExceptionally(e);
+            throw e;
+        }
+        return fresh;
+    }
+
+    private ReplSession startSession(WebSocketSession ws, Supplier<String> admitNewSession) {
+        // Take a slot before asking admission, so a full node doesn't cost the caller a run
+        if (openSessions.incrementAndGet() > maxSessions) {
+            openSessions.decrementAndGet();
+            throw new IllegalStateException("All REPL slots are busy right now. Use Run instead or try again later.");
+        }
+        try {
+            String rejection = admitNewSession.get();
+            if (rejection != null) {
+                throw new IllegalStateException(rejection);
+            }
+            return new ReplSession(chunk -> send(ws, "OUTPUT:" + chunk), memoryMb);
+        } catch (IOException e) {
+            openSessions.decrementAndGet();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            openSessions.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void charge(Slot slot, ReplSession session) {
+        cpuQuota.record(slot.quotaKey, session.takeCpuMillis());
+    }
+
+    // Charges CPU used between evaluations, stops REPLs whose owner ran out of quota and evicts idle ones
+    void sweep() {
+        for (Slot slot : sessions.values()) {
+            ReplSession session = slot.ready();
+            if (session == null) {
+                continue;
+            }
+            charge(slot, session);
+            if (slot.quotaKey != null && !cpuQuota.hasRemaining(slot.quotaKey)) {
+                send(slot.ws, "ERROR:Daily execution time quota used up. The REPL was stopped.");
+                discard(slot);
+            } else if (session.isIdleLongerThan(idleMillis)) {
+                discard(slot);
+            }
+        }
+    }
+
+    // REPL output arrives on JShell's threads; serialize writes per socket
+    private void send(WebSocketSession ws, String message) {
+        synchronized (ws) {
+            if (!ws.isOpen()) {
+                return;
+            }
+            try {
+                ws.sendMessage(new TextMessage(message));
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        evaluator.shutdownNow();
+        sessions.values().forEach(this::discard);
+    }
+
+    // A socket's REPL, possibly still starting
+    private static final class Slot {
+
+        final WebSocketSession ws;
+        final String quotaKey;
+        final CompletableFuture<ReplSession> session = new CompletableFuture<>();
+
+        Slot(WebSocketSession ws, String quotaKey) {
+            this.ws = ws;
+            this.quotaKey = quotaKey;
+        }
+
+        ReplSession ready() {
+            return session.isDone() && !session.isCompletedExceptionally() ? session.join() : null;
+        }
+    }
+}
@@ -3,12 +3,14 @@ package com.JavaPlayground.repository;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.JavaPlayground.model.Program;
 import com.JavaPlayground.model.User;
 
 public interface ProgramRepository extends JpaRepository<Program, Long> {
 
-    // Find all programs for a specific User entity
+    // Find all programs for a specific User entity (read-only: served by the replica when configured)
+    @Transactional(readOnly = true)
     List<Program> findByUserOrderByIdDesc(User user);
 }
@@ -3,17 +3,36 @@ package com.JavaPlayground.repository;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.JavaPlayground.model.User;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     // Used for OAuth login (Email + Provider)
+    @Transactional(readOnly = true)
     Optional<User> findByEmailAndProvider(String email, String provider);
 
+    // Used on every OAuth login: insert or refresh the user in ONE statement
+    // (no read-then-write round trip), keyed on the (email, provider) unique index.
+    // The "AS new" row alias needs MySQL 8.0.19+; it replaces the deprecated VALUES(col).
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO users (email, name, provider, provider_id) "
+            + "VALUES (:email, :name, :provider, :providerId) AS new "
+            + "ON DUPLICATE KEY UPDATE name = new.name, provider_id = COALESCE(provider_id, new.provider_id)",
+            nativeQuery = true)
+    int upsertOAuthUser(@Param("email") String email, @Param("name") String name,
+            @Param("provider") String provider, @Param("providerId") String providerId);
+
     // Used for Program Saving (Email only)
+    @Transactional(readOnly = true)
     Optional<User> findByEmail(String email);
 
     // ADD THIS: Used for GitHub fallback (Username/Login)
+    @Transactional(readOnly = true)
     Optional<User> findByName(String name);
 }
@@ -1,23 +1,46 @@
 package com.JavaPlayground.security;
 
-import java.util.Optional;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.client.userinfo.DefaultOAuth2UserService;
 import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
 import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
 
-import com.JavaPlayground.model.User;
 import com.JavaPlayground.repository.UserRepository;
 
 @Service
 public class OAuthUserService extends DefaultOAuth2UserService {
 
+    // Added to the principal so later requests can find the DB row with one
+    // lookup on the (email, provider) unique index instead of guessing
+    public static final String EMAIL_ATTRIBUTE = "playground_email";
+    public static final String PROVIDER_ATTRIBUTE = "playground_provider";
+
+    private static final Logger log = LoggerFactory.getLogger(OAuthUserService.class);
+
     private final UserRepository userRepository;
+    private final Set<String> adminEmails;
 
-    public OAuthUserService(UserRepository userRepository) {
+    public OAuthUserService(UserRepository userRepository, @Value("${app.admin-emails:}") String adminEmails) {
         this.userRepository = userRepository;
+        this.adminEmails = Arrays.stream(adminEmails.split(","))
+                .map(email -> email.strip().toLowerCase(Locale.ROOT))
+                .filter(email -> !email.isEmpty())
+                .collect(Collectors.toSet());
     }
 
     @Override
@@ -25,7 +48,7 @@ public class OAuthUserService extends DefaultOAuth2UserService {
         try {
             // 1. Load user from Google/GitHub
             OAuth2User oauthUser = super.loadUser(userRequest);
-            System.out.println("OAuth User Loaded: " + oauthUser.getAttributes());
+            log.debug("OAuth user loaded: {}", oauthUser.getName());
 
             // 2. Extract Details
             String provider = userRequest.getClientRegistration().getRegistrationId();
@@ -42,34 +65,34 @@ public class OAuthUserService extends DefaultOAuth2UserService {
                 email = name + "@" + provider + ".com";
             }
 
-            // 3. Save to DB
-            saveOrUpdateUser(email, name, provider, providerId);
+            // 3. Save to DB: a single INSERT ... ON DUPLICATE KEY UPDATE
+            userRepository.upsertOAuthUser(email, name, provider, providerId);
+            log.info("OAuth login: {} via {}", email, provider);
 
-            return oauthUser;
+            // 4. Remember the DB key on the principal
+            Map<String, Object> attributes = new HashMap<>(oauthUser.getAttributes());
+            attributes.put(EMAIL_ATTRIBUTE, email);
+            attributes.put(PROVIDER_ATTRIBUTE, provider);
+            Set<GrantedAuthority> authorities = new HashSet<>(oauthUser.getAuthorities());
+            if (isAdmin(oauthUser)) {
+                authorities.add(new SimpleGrantedAuthority("ROLE_ADMIN"));
+            }
+            String nameAttributeKey = userRequest.getClientRegistration()
+                    .getProviderDetails().getUserInfoEndpoint().getUserNameAttributeName();
+            return new DefaultOAuth2User(authorities, attributes, nameAttributeKey);
 
         } catch (Exception e) {
             // Log the error so we know why login failed
-            e.printStackTrace();
+            log.error("OAuth login failed", e);
             throw new OAuth2AuthenticationException("Login failed: " + e.getMessage());
         }
     }
 
-    private void saveOrUpdateUser(String email, String name, String provider, String providerId) {
-        Optional<User> existingUser = userRepository.findByEmailAndProvider(email, provider);
-
-        if (existingUser.isEmpty()) {
-            User user = new User();
-            user.setEmail(email);
-            user.setName(name);
-            user.setProvider(provider);
-            user.setProviderId(providerId);
-            userRepository.save(user);
-            System.out.println("New User Saved: " + email);
-        } else {
-            User user = existingUser.get();
-            user.setName(name);
-            userRepository.save(user);
-            System.out.println("User Updated: " + email);
-        }
+    // Only an email the provider vouches for counts; the name-based fallback above could be anyone's
+    private boolean isAdmin(OAuth2User oauthUser) {
+        String email = oauthUser.getAttribute("email");
+        return email != null
+                && !Boolean.FALSE.equals(oauthUser.getAttribute("email_verified")) // Google sends this
+                && adminEmails.contains(email.toLowerCase(Locale.ROOT));
     }
 }
@@ -0,0 +1,258 @@
+package com.JavaPlayground.service;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.JavaPlayground.model.BenchmarkResponse;
+
+/**
+ * Generates the benchmark runner that is compiled next to the user's class,
+ * and turns what it prints back into numbers.
+ *
+ * Benchmarks are found by naming convention: any non-private static method
+ * whose name starts with "bench" and takes no parameters. Return values are
+ * fed to a Blackhole so the JIT cannot drop the work as dead code.
+ */
+final class BenchmarkHarness {
+
+    static final String CLASS_NAME = "PlaygroundBenchmark";
+    static final int MAX_METHODS = 5;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final Pattern BENCH_METHOD = Pattern.compile(
+            "((?:\\b(?:public|protected|private|static|final|synchronized)\\s+)+)([\\w.$<>\\[\\], ?]+?)\\s+(bench\\w*)\\s*\\(\\s*\\)");
+
+    // Two-sided Student's t quantiles for a 99.9% interval, by degrees of freedom (1..30), as JMH reports
+    private static final double[] T_999 = {
+            636.619, 31.599, 12.924, 8.610, 6.869, 5.959, 5.408, 5.041, 4.781, 4.587,
+            4.437, 4.318, 4.221, 4.140, 4.073, 4.015, 3.965, 3.922, 3.883, 3.850,
+            3.819, 3.792, 3.768, 3.745, 3.725, 3.707, 3.690, 3.674, 3.659, 3.646 };
+    private static final double T_999_LARGE = 3.291;
+
+    private BenchmarkHarness() {
+    }
+
+    /**
+     * Prefix of the harness's own output lines; everything else is the user's
+     * output. Fresh per run, so a program can't fake results by printing
+     * lines that look like ours.
+     */
+    static String newMarker() {
+        byte[] nonce = new byte[8];
+        RANDOM.nextBytes(nonce);
+        return "@@bench-" + HexFormat.of().formatHex(nonce) + " ";
+    }
+
+    /** Benchmark methods in declaration order, mapped to whether they return a value. */
+    static Map<String, Boolean> findMethods(String code) {
+        Map<String, Boolean> methods = new LinkedHashMap<>();
+        Matcher m = BENCH_METHOD.matcher(code);
+        while (m.find()) {
+            String modifiers = m.group(1);
+            if (modifiers.contains("static") && !modifiers.contains("private")) {
+                methods.putIfAbsent(m.group(3), !m.group(2).equals("void"));
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * The runner's main() forks one JVM per method and fork number so each
+     * measurement starts from a clean JIT profile. Iteration length is worked
+     * out at run time from the budget, so more methods just means shorter
+     * iterations instead of a timeout.
+     */
+    static String generate(String userClass, Map<String, Boolean> methods, int forks, int warmup, int measurement,
+            long budgetMillis, String marker) {
+        StringBuilder names = new StringBuilder();
+        StringBuilder bodies = new StringBuilder();
+        for (Map.Entry<String, Boolean> method : methods.entrySet()) {
+            String call = userClass + "." + method.getKey() + "()";
+            names.append("\"").append(method.getKey()).append("\", ");
+            bodies.append("            ").append(method.getValue() ? "bh -> bh.consume(" + call + ")" : "bh -> " + call)
+                    .append(",\n");
+        }
+        return """
+                public class %1$s {
+
+                    interface Body {
+                        void run(Blackhole bh);
+                    }
+
+                    static final String[] NAMES = { %2$s};
+                    static final Body[] BODIES = {
+                %3$s    };
+
+                    public static void main(String[] args) throws Exception {
+                        if (args.length > 0) {
+                            measure(Integer.parseInt(args[0]), Integer.parseInt(args[1]), Long.parseLong(args[2]));
+                            return;
+                        }
+                        int runs = NAMES.length * %4$d;
+                        long iterationMillis = Math.max(10, (%7$dL - runs * 200L) / (runs * (%5$d + %6$d)));
+                        System.out.println("%8$sconfig " + iterationMillis);
+                        String java = ProcessHandle.current().info().command().orElse("java");
+                        String classPath = System.getProperty("java.class.path");
+                        for (int b = 0; b < NAMES.length; b++) {
+                            for (int fork = 0; fork < %4$d; fork++) {
+                                Process p = new ProcessBuilder(java, "-cp", classPath, "%1$s",
+                                        String.valueOf(b), String.valueOf(fork), String.valueOf(iterationMillis))
+                                        .inheritIO().start();
+                                int exit = p.waitFor();
+                                if (exit != 0) {
+                                    System.out.println("%8$sfailed " + b + " " + exit);
+                                }
+                            }
+                        }
+                    }
+
+                    static void measure(int b, int fork, long iterationMillis) {
+                        Body body = BODIES[b];
+                        Blackhole bh = new Blackhole();
+                        long iterationNanos = iterationMillis * 1_000_000L;
+                        long batch = 1;
+                        for (int i = 0; i < %5$d + %6$d; i++) {
+                            boolean warmup = i < %5$d;
+                            long ops = 0;
+                            long start = System.nanoTime();
+                            long now = start;
+                            while (now - start < iterationNanos) {
+                                for (long k = 0; k < batch; k++) {
+                                    body.run(bh);
+                                }
+                                ops += batch;
+                                long t = System.nanoTime();
+                                if (warmup && t - now < 10_000) {
+                                    batch *= 2; // Keep nanoTime() calls out of the cost of tiny bodies
+                                }
+                                now = t;
+                            }
+                            if (!warmup) {
+                                System.out.println("%8$sresult " + b + " " + fork + " " + ops + " " + (now - start));
+                            }
+                        }
+                    }
+
+                    // Consumes values in ways the JIT cannot prove are useless (same idea as JMH's Blackhole)
+                    static final class Blackhole {
+                        private volatile int i1 = 1, i2 = 2;
+                        private volatile long l1 = 1, l2 = 2;
+                        private volatile double d1 = 1, d2 = 2;
+                        private volatile boolean b1 = false, b2 = true;
+                        private int tlr = (int) System.nanoTime();
+                        private int tlrMask = 1;
+                        private Object sink;
+
+                        void consume(int v) {
+                            if (v == i1 & v == i2) throw new IllegalStateException();
+                        }
+
+                        void consume(long v) {
+                            if (v == l1 & v == l2) throw new IllegalStateException();
+                        }
+
+                        void consume(double v) {
+                            if (v == d1 & v == d2) throw new IllegalStateException();
+                        }
+
+                        void consume(boolean v) {
+                            if (v == b1 & v == b2) throw new IllegalStateException();
+                        }
+
+                        void consume(Object o) {
+                            int t = tlr = tlr * 1664525 + 1013904223;
+                            if ((t & tlrMask) == 0) {
+                                sink = o; // Occasionally publish it, so the object really escapes
+                                tlrMask = (tlrMask << 1) + 1;
+                            }
+                        }
+                    }
+                }
+                """.formatted(CLASS_NAME, names, bodies, forks, warmup, measurement, budgetMillis, marker);
+    }
+
+    /** Splits the run output into per-method statistics and whatever the user printed. */
+    static BenchmarkResponse summarize(String output, List<String> methods, String marker) {
+        List<List<long[]>> samples = new ArrayList<>(); // Per method: {ops, nanos} for each measured iteration
+        List<Integer> failedForks = new ArrayList<>();
+        for (int i = 0; i < methods.size(); i++) {
+            samples.add(new ArrayList<>());
+            failedForks.add(0);
+        }
+        BenchmarkResponse response = new BenchmarkResponse();
+        StringBuilder userOutput = new StringBuilder();
+
+        for (String line : output.split("\n", -1)) {
+            int at = line.indexOf(marker);
+            if (at < 0) {
+                userOutput.append(line).append('\n');
+                continue;
+            }
+            if (at > 0) {
+                userOutput.append(line, 0, at).append('\n'); // A print() without newline right before our line
+            }
+            String[] f = line.substring(at + marker.length()).trim().split(" ");
+            try {
+                switch (f[0]) {
+                    case "config" -> response.setIterationMillis(Long.parseLong(f[1]));
+                    case "result" -> samples.get(Integer.parseInt(f[1]))
+                            .add(new long[] { Long.parseLong(f[3]), Long.parseLong(f[4]) });
+                    case "failed" -> failedForks.set(Integer.parseInt(f[1]), failedForks.get(Integer.parseInt(f[1])) + 1);
+                    default -> userOutput.append(line).append('\n');
+                }
+            } catch (RuntimeException e) {
+                userOutput.append(line).append('\n'); // Not really ours after all
+            }
+        }
+
+        for (int i = 0; i < methods.size(); i++) {
+            response.getResults().add(statistics(methods.get(i), samples.get(i), failedForks.get(i)));
+        }
+        response.setOutput(userOutput.toString().strip());
+        return response;
+    }
+
+    private static BenchmarkResponse.Result statistics(String method, List<long[]> samples, int failedForks) {
+        BenchmarkResponse.Result result = new BenchmarkResponse.Result();
+        result.setMethod(method);
+        result.setIterations(samples.size());
+        result.setFailedForks(failedForks);
+        if (samples.isEmpty()) {
+            return result;
+        }
+
+        long totalOps = 0;
+        long totalNanos = 0;
+        double sum = 0;
+        double[] nanosPerOp = new double[samples.size()];
+        for (int i = 0; i < nanosPerOp.length; i++) {
+            long[] s = samples.get(i);
+            totalOps += s[0];
+            totalNanos += s[1];
+            nanosPerOp[i] = (double) s[1] / s[0];
+            sum += nanosPerOp[i];
+        }
+        double mean = sum / nanosPerOp.length;
+        result.setMeanNanosPerOp(mean);
+        result.setThroughputOpsPerSecond(totalOps * 1e9 / totalNanos);
+
+        if (nanosPerOp.length > 1) {
+            double squares = 0;
+            for (double v : nanosPerOp) {
+                squares += (v - mean) * (v - mean);
+            }
+            int df = nanosPerOp.length - 1;
+            double stdDev = Math.sqrt(squares / df);
+            double t = df <= T_999.length ? T_999[df - 1] : T_999_LARGE;
+            result.setErrorNanosPerOp(t * stdDev / Math.sqrt(nanosPerOp.length));
+        }
+        return result;
+    }
+}
@@ -1,147 +1,292 @@
 package com.JavaPlayground.service;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import javax.tools.Diagnostic;
-import javax.tools.DiagnosticCollector;
-import javax.tools.JavaCompiler;
-import javax.tools.JavaFileObject;
-import javax.tools.StandardJavaFileManager;
-import javax.tools.ToolProvider;
-
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.JavaPlayground.analytics.ExecutionEvent;
+import com.JavaPlayground.analytics.ExecutionEventLog;
+import com.JavaPlayground.execution.ExecutionBackend;
+import com.JavaPlayground.execution.ExecutionHandle;
+import com.JavaPlayground.execution.ExecutionJob;
+import com.JavaPlayground.execution.ExecutionLimit;
+import com.JavaPlayground.execution.ExecutionLimits;
+import com.JavaPlayground.execution.ExecutionListener;
+import com.JavaPlayground.execution.ExecutionOutcome;
+import com.JavaPlayground.model.BenchmarkResponse;
 import com.JavaPlayground.model.CompilationResponse;
+import com.JavaPlayground.ratelimit.CpuQuotaService;
 
 @Service
 public class CompilerService {
 
-    public CompilationResponse compileAndExecute(String code, String input) {
-        CompilationResponse response = new CompilationResponse();
-        Path tempDir = null;
+    // Compiling (and queueing on a remote worker) happens before the limits start counting
+    private static final long COMPILE_ALLOWANCE_SECONDS = 5;
 
-        try {
-            tempDir = Files.createTempDirectory("java-compile-");
+    // Benchmark mode: the harness plans its forks and iterations to fit in this wall-clock budget...
+    private static final long BENCHMARK_SECONDS = 5;
+    // ...and the limits leave this much on top, for fork JVMs that start slower than the harness assumed
+    private static final long BENCHMARK_MARGIN_SECONDS = 3;
+    private static final int BENCHMARK_FORKS = 2;
+    private static final int BENCHMARK_WARMUP_ITERATIONS = 3;
+    private static final int BENCHMARK_MEASUREMENT_ITERATIONS = 5;
+    private static final long BENCHMARK_HARNESS_STARTUP_MILLIS = 1000;
+    private static final Pattern CLASS_NAME = Pattern.compile("public\\s+class\\s+(\\w+)");
 
-            String className = extractClassName(code);
-            if (className == null) {
-                response.setSuccess(false);
-                response.setError("No public class found in code");
-                return response;
-            }
+    private final ExecutionBackend executionBackend;
+    private final CpuQuotaService cpuQuota;
+    private final ExecutionResultCache resultCache;
+    private final ExecutionEventLog eventLog;
+    private final ExecutionLimits runLimits;
 
-            Path javaFilePath = tempDir.resolve(className + ".java");
-            Files.write(javaFilePath, code.getBytes());
+    public CompilerService(ExecutionBackend executionBackend, CpuQuotaService cpuQuota,
+            ExecutionResultCache resultCache, ExecutionEventLog eventLog,
+            @Value("${execution.limits.cpu-seconds:5}") long cpuSeconds,
+            @Value("${execution.limits.wall-seconds:20}") long wallSeconds,
+            @Value("${execution.limits.idle-seconds:5}") long idleSeconds) {
+        this.executionBackend = executionBackend;
+        this.cpuQuota = cpuQuota;
+        this.resultCache = resultCache;
+        this.eventLog = eventLog;
+        this.runLimits = ExecutionLimits.ofSeconds(cpuSeconds, wallSeconds, idleSeconds);
+    }
 
-            JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-            if (compiler == null) {
-                response.setSuccess(false);
-                response.setError("JDK required (JRE is not sufficient)");
-                return response;
-            }
+    public CompilationResponse compileAndExecute(String code, String input) {
+        return compileAndExecute(code, input, null, false, false);
+    }
 
-            DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
-            try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
-                Iterable<? extends JavaFileObject> compilationUnits = fileManager.getJavaFileObjects(javaFilePath.toFile());
-                JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, null, null, compilationUnits);
-
-                boolean success = task.call();
-                if (!success) {
-                    StringBuilder errorMsg = new StringBuilder();
-                    for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
-                        errorMsg.append("Line ").append(diagnostic.getLineNumber()).append(": ")
-                                .append(diagnostic.getMessage(null)).append("\n");
-                    }
-                    response.setSuccess(false);
-                    response.setError("Compilation errors:\n" + errorMsg);
-                    return response;
-                }
-            }
+    /**
+     * @param quotaKey    client the run time is charged to (see RateLimitKeys), or null
+     * @param bypassCache always run for real (graders, or users who suspect a stale answer)
+     * @param profile     record the run with Flight Recorder and attach a ProfileReport
+     */
+    public CompilationResponse compileAndExecute(String code, String input, String quotaKey, boolean bypassCache,
+            boolean profile) {
+        CompilationResponse response = new CompilationResponse();
 
-            // --- RUN Logic ---
-            ProcessBuilder processBuilder = new ProcessBuilder("java", "-cp", tempDir.toString(), className);
-            processBuilder.redirectErrorStream(true);
-            Process process = processBuilder.start();
+        // Deterministic program we've already run with this exact input?
+        // A profile needs a real run, so profiled requests never read the cache.
+        String cacheKey = resultCache.keyFor(code, input);
+        String cachedOutput = bypassCache || profile ? null : resultCache.get(cacheKey);
+        if (cachedOutput != null) {
+            eventLog.record(ExecutionEvent.cached(ExecutionEvent.SOURCE_COMPILE, quotaKey, code));
+            response.setOutput(cachedOutput);
+            response.setSuccess(true);
+            response.setCached(true);
+            return response;
+        }
+
+        try {
+            CollectingListener result = new CollectingListener(ExecutionEvent.SOURCE_COMPILE, quotaKey, code);
+            ExecutionHandle handle = executionBackend.submit(new ExecutionJob(code, runLimits, profile), result);
 
             // --- CRITICAL INPUT FIX ---
-            // We must open the writer, write input (if any), and then CLOSE it.
+            // We must write input (if any), and then CLOSE stdin.
             // Closing it sends EOF (End of File), so Scanner stops waiting.
-            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(process.getOutputStream()))) {
-                if (input != null && !input.isEmpty()) {
-                    writer.write(input);
-                    writer.newLine(); // Ensure newline at end of input
-                }
-                // The try-with-resources block automatically calls writer.close() here.
-                // This is ESSENTIAL to prevent "Execution Timed Out".
-            } catch (IOException e) {
-                // If program finished immediately, writing might fail. This is normal.
+            // This is ESSENTIAL to prevent "Execution Timed Out".
+            if (input != null && !input.isEmpty()) {
+                handle.sendInput(input + "\n"); // Ensure newline at end of input
             }
+            handle.closeInput();
 
-            // Read Output
-            StringBuilder output = new StringBuilder();
-            Thread outputReader = new Thread(() -> {
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        output.append(line).append("\n");
-                    }
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-            });
-            outputReader.start();
-
-            boolean finished = process.waitFor(5, TimeUnit.SECONDS);
+            // The backend's watchdog enforces the CPU/wall/idle limits; this wait is only a safety
+            // net in case the backend itself goes quiet (e.g. a lost remote worker)
+            boolean finished = result.done.await(
+                    runLimits.getWallMillis() + TimeUnit.SECONDS.toMillis(COMPILE_ALLOWANCE_SECONDS),
+                    TimeUnit.MILLISECONDS);
             if (!finished) {
-                process.destroyForcibly();
+                handle.cancel();
                 response.setSuccess(false);
-                response.setError("Execution timed out (Program waited too long for input or infinite loop)");
+                response.setLimitExceeded(ExecutionLimit.WALL_CLOCK.name());
+                response.setError("Execution timed out (the execution backend did not answer in time)");
                 return response;
             }
 
-            outputReader.join(2000);
+            if (result.failure != null) {
+                response.setSuccess(false);
+                response.setError(result.failure);
+                return response;
+            }
+            if (result.compileErrors != null) {
+                response.setSuccess(false);
+                response.setError("Compilation errors:\n" + result.compileErrors);
+                return response;
+            }
 
             // Send back raw output (preserves spaces for patterns)
-            response.setOutput(output.toString());
-            response.setSuccess(process.exitValue() == 0);
+            String output = result.output.toString();
+            int exitCode = result.outcome.getExitCode();
+            ExecutionLimit limit = result.outcome.getLimitExceeded();
+            response.setOutput(output);
+            response.setSuccess(exitCode == 0 && limit == null);
+            response.setCpuMillis(result.outcome.getCpuMillis());
+            response.setProfile(result.outcome.getProfile());
 
-            if (process.exitValue() != 0) {
+            if (limit != null) {
+                response.setLimitExceeded(limit.name());
+                response.setError(output + (output.isEmpty() ? "" : "\n\n") + limitMessage(runLimits, limit));
+            } else if (exitCode == 0) {
+                // Only clean, quick runs are worth remembering
+                resultCache.put(cacheKey, output, result.outcome.getElapsedMillis());
+            } else {
                 // Add extra hint for users if exit code is non-zero
-                String err = output.toString();
+                String err = output;
                 if (err.contains("NoSuchElementException")) {
                     err += "\n\n[Hint]: You used Scanner but didn't provide enough input in the Input box.";
                 }
                 response.setError(err);
             }
 
-        } catch (Exception e) {
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             response.setSuccess(false);
             response.setError("Error: " + e.getMessage());
-        } finally {
-            if (tempDir != null) {
-                try {
-                    Files.walk(tempDir).sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
-                } catch (IOException ignored) {
-                }
+        }
+        return response;
+    }
+
+    private static String limitMessage(ExecutionLimits limits, ExecutionLimit limit) {
+        String message = "Program stopped: " + limits.describe(limit) + ".";
+        switch (limit) {
+            case CPU:
+                return message + " Is there an infinite loop?";
+            case IDLE:
+                return message + " It stopped doing anything; was it waiting for input or sleeping?";
+            default:
+                return message;
+        }
+    }
+
+    /**
+     * Runs every static no-arg bench*() method of the class with warmup,
+     * measurement and forks (see BenchmarkHarness) and reports per-method scores.
+     */
+    public BenchmarkResponse benchmark(String code, String quotaKey) {
+        BenchmarkResponse response = new BenchmarkResponse();
+        response.setForks(BENCHMARK_FORKS);
+        response.setWarmupIterations(BENCHMARK_WARMUP_ITERATIONS);
+        response.setMeasurementIterations(BENCHMARK_MEASUREMENT_ITERATIONS);
+
+        Matcher className = CLASS_NAME.matcher(code);
+        if (!className.find()) {
+            response.setError("No public class found in code");
+            return response;
+        }
+        Map<String, Boolean> methods = BenchmarkHarness.findMethods(code);
+        if (methods.isEmpty()) {
+            response.setError("No benchmarks found. Add static methods named bench...() with no parameters, "
+                    + "e.g. static int benchBubbleSort() { ... }");
+            return response;
+        }
+        if (methods.size() > BenchmarkHarness.MAX_METHODS) {
+            response.setError("Too many benchmarks (" + methods.size() + "). Compare at most "
+                    + BenchmarkHarness.MAX_METHODS + " methods per run.");
+            return response;
+        }
+
+        String marker = BenchmarkHarness.newMarker();
+        String harness = BenchmarkHarness.generate(className.group(1), methods, BENCHMARK_FORKS,
+                BENCHMARK_WARMUP_ITERATIONS, BENCHMARK_MEASUREMENT_ITERATIONS,
+                TimeUnit.SECONDS.toMillis(BENCHMARK_SECONDS) - BENCHMARK_HARNESS_STARTUP_MILLIS, marker);
+        // The JIT and GC threads of each fork burn CPU alongside the measured thread, hence 2x
+        long budgetMillis = TimeUnit.SECONDS.toMillis(BENCHMARK_SECONDS + BENCHMARK_MARGIN_SECONDS);
+        ExecutionLimits limits = new ExecutionLimits(2 * budgetMillis, budgetMillis, budgetMillis);
+        ExecutionJob job = new ExecutionJob(code, limits, Map.of(BenchmarkHarness.CLASS_NAME, harness),
+                BenchmarkHarness.CLASS_NAME);
+
+        try {
+            CollectingListener result = new CollectingListener(ExecutionEvent.SOURCE_BENCHMARK, quotaKey, code);
+            ExecutionHandle handle = executionBackend.submit(job, result);
+            handle.closeInput();
+
+            boolean finished = result.done.await(budgetMillis + TimeUnit.SECONDS.toMillis(COMPILE_ALLOWANCE_SECONDS),
+                    TimeUnit.MILLISECONDS);
+            if (!finished) {
+                handle.cancel();
+            }
+            if (result.failure != null) {
+                response.setError(result.failure);
+                return response;
+            }
+            if (result.compileErrors != null) {
+                response.setError("Compilation errors:\n" + result.compileErrors);
+                return response;
             }
+
+            // Even after a timeout, the iterations that completed are worth showing
+            BenchmarkResponse measured = BenchmarkHarness.summarize(result.output.toString(),
+                    new ArrayList<>(methods.keySet()), marker);
+            response.setResults(measured.getResults());
+            response.setIterationMillis(measured.getIterationMillis());
+            response.setOutput(measured.getOutput());
+            if (!finished) {
+                response.setError("Benchmark timed out; results cover only the iterations that finished.");
+            } else if (result.outcome.getLimitExceeded() != null) {
+                response.setError("Benchmark stopped: " + limits.describe(result.outcome.getLimitExceeded())
+                        + "; results cover only the iterations that finished.");
+            } else if (result.outcome.getExitCode() != 0) {
+                response.setError("Benchmark harness exited with code " + result.outcome.getExitCode());
+            } else {
+                response.setSuccess(true);
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.setError("Error: " + e.getMessage());
         }
         return response;
     }
 
-    private String extractClassName(String code) {
-        Pattern pattern = Pattern.compile("public\\s+class\\s+(\\w+)");
-        Matcher matcher = pattern.matcher(code);
-        return matcher.find() ? matcher.group(1) : null;
+    // Gathers the streamed events into one result for the REST response
+    private class CollectingListener implements ExecutionListener {
+
+        private final String source;
+        private final String quotaKey;
+        private final String code;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final StringBuffer output = new StringBuffer();
+        private volatile String compileErrors;
+        private volatile String failure;
+        private volatile ExecutionOutcome outcome;
+
+        CollectingListener(String source, String quotaKey, String code) {
+            this.source = source;
+            this.quotaKey = quotaKey;
+            this.code = code;
+        }
+
+        @Override
+        public void onOutput(String chunk) {
+            output.append(chunk);
+        }
+
+        @Override
+        public void onCompileError(String diagnostics) {
+            eventLog.record(ExecutionEvent.compileError(source, quotaKey, code));
+            compileErrors = diagnostics;
+            done.countDown();
+        }
+
+        @Override
+        public void onExit(ExecutionOutcome outcome) {
+            // Charged here so runs we gave up waiting on still count once they are killed
+            cpuQuota.record(quotaKey, outcome.getChargeableMillis());
+            eventLog.record(ExecutionEvent.finished(source, quotaKey, code, outcome));
+            this.outcome = outcome;
+            done.countDown();
+        }
+
+        @Override
+        public void onFailure(String message) {
+            eventLog.record(ExecutionEvent.failure(source, quotaKey, code));
+            failure = message;
+            done.countDown();
+        }
     }
 }
@@ -0,0 +1,278 @@
+package com.JavaPlayground.service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.JavaPlayground.model.DiagnosticsResponse;
+import com.JavaPlayground.model.SourceDiagnostic;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.TaskEvent;
+import com.sun.source.util.TaskListener;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * As-you-type compile errors. javac only parses and attributes the source in
+ * memory (JavacTask.analyze()): no class files, no temp directory, no child
+ * JVM. That takes tens of milliseconds once the compiler is warm, against
+ * seconds for a full run.
+ */
+@Service
+public class DiagnosticsService {
+
+    private static final Pattern CLASS_NAME = Pattern.compile("public\\s+class\\s+(\\w+)");
+    private static final List<String> OPTIONS = List.of("-proc:none", "-implicit:none");
+    private static final String WARM_UP_SOURCE = """
+            import java.util.*;
+
+            public class Main {
+                public static void main(String[] args) {
+                    Scanner sc = new Scanner(System.in);
+                    List<Integer> values = new ArrayList<>();
+                    for (int i = 0; i < 10; i++) values.add(i);
+                    int total = values.stream().mapToInt(Integer::intValue).sum() + missing;
+                    System.out.println("Total: " + total);
+                }
+            }
+            """;
+
+    private final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    private final Semaphore slots;
+    private final int maxChars;
+    private final long busyWaitMillis;
+
+    // One per slot at most, kept between checks: a fresh file manager re-reads the JDK's module index
+    private final Queue<StandardJavaFileManager> fileManagers = new ConcurrentLinkedQueue<>();
+
+    // Latest request per editor; starting a new one flags the previous as superseded
+    private final Map<String, AtomicBoolean> latest = new ConcurrentHashMap<>();
+
+    public DiagnosticsService(
+            @Value("${diagnostics.max-concurrent:4}") int maxConcurrent,
+            @Value("${diagnostics.max-chars:100000}") int maxChars,
+            @Value("${diagnostics.busy-wait-millis:500}") long busyWaitMillis) {
+        this.slots = new Semaphore(maxConcurrent);
+        this.maxChars = maxChars;
+        this.busyWaitMillis = busyWaitMillis;
+    }
+
+    /**
+     * @param client identifies one editor (caller's rate-limit key + its clientId);
+     *               null disables superseding
+     */
+    public DiagnosticsResponse analyze(String code, String client) {
+        DiagnosticsResponse response = new DiagnosticsResponse();
+        if (compiler == null) {
+            response.setError("JDK required (JRE is not sufficient)");
+            return response;
+        }
+        if (code == null || code.length() > maxChars) {
+            response.setError("Code is too large to check as you type.");
+            return response;
+        }
+
+        AtomicBoolean superseded = new AtomicBoolean();
+        if (client != null) {
+            AtomicBoolean previous = latest.put(client, superseded);
+            if (previous != null) {
+                previous.set(true);
+            }
+        }
+        long start = System.currentTimeMillis();
+        try {
+            // A burst must not park request threads: by the time a slot frees up the user has typed on
+            if (!slots.tryAcquire(busyWaitMillis, TimeUnit.MILLISECONDS)) {
+                response.setBusy(true);
+                response.setError("Too many checks running right now.");
+                response.setElapsedMillis(System.currentTimeMillis() - start);
+                return response;
+            }
+            try {
+                if (!superseded.get()) {
+                    response.setDiagnostics(compile(code, superseded));
+                }
+            } finally {
+                slots.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            superseded.set(true);
+        } catch (IOException e) {
+            response.setError("Error: " + e.getMessage());
+        } catch (RuntimeException e) {
+            // javac wraps exceptions thrown by task listeners
+            if (!(e instanceof CancellationException) && !(e.getCause() instanceof CancellationException)) {
+                throw e;
+            }
+        } finally {
+            if (client != null) {
+                latest.remove(client, superseded);
+            }
+        }
+        response.setSuperseded(superseded.get());
+        if (response.isSuperseded()) {
+            response.getDiagnostics().clear();
+        }
+        response.setElapsedMillis(System.currentTimeMillis() - start);
+        return response;
+    }
+
+    private List<SourceDiagnostic> compile(String code, AtomicBoolean superseded) throws IOException {
+        DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<>();
+        StandardJavaFileManager fileManager = fileManagers.poll();
+        if (fileManager == null) {
+            fileManager = compiler.getStandardFileManager(null, Locale.ROOT, null);
+            // Programs only see the JDK when they run; searching our own classpath (every jar of the
+            // app) for each unresolved name would cost more than the whole check
+            fileManager.setLocation(StandardLocation.CLASS_PATH, List.of());
+        }
+        try {
+            JavacTask task = (JavacTask) compiler.getTask(null, fileManager, collector, OPTIONS, null,
+                    List.of(new SourceFile(className(code), code)));
+            // Checked between javac phases, so a superseded request stops within a few ms
+            task.addTaskListener(new TaskListener() {
+                @Override
+                public void started(TaskEvent e) {
+                    if (superseded.get()) {
+                        throw new CancellationException("Superseded by a newer request");
+                    }
+                }
+            });
+            task.parse();
+            task.analyze(); // Attribute and flow-check; generate() is never called
+        } finally {
+            fileManagers.add(fileManager);
+        }
+
+        LineMap lines = new LineMap(code);
+        List<SourceDiagnostic> result = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> d : collector.getDiagnostics()) {
+            SourceDiagnostic item = new SourceDiagnostic();
+            item.setSeverity(severity(d.getKind()));
+            item.setCode(d.getCode());
+            item.setMessage(d.getMessage(Locale.ROOT));
+            if (d.getPosition() != Diagnostic.NOPOS) {
+                long startPos = d.getStartPosition() != Diagnostic.NOPOS ? d.getStartPosition() : d.getPosition();
+                long endPos = Math.max(d.getEndPosition(), startPos);
+                item.setLine(lines.line(startPos));
+                item.setColumn(lines.column(startPos));
+                item.setEndLine(lines.line(endPos));
+                item.setEndColumn(lines.column(endPos));
+            }
+            result.add(item);
+        }
+        return result;
+    }
+
+    // The first compile in a JVM loads and JITs javac (~1s); pay for it before a user does
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread warmer = new Thread(() -> {
+            for (int i = 0; i < 20; i++) {
+                analyze(WARM_UP_SOURCE, null);
+            }
+        }, "diagnostics-warm-up");
+        warmer.setDaemon(true);
+        warmer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        for (StandardJavaFileManager fileManager; (fileManager = fileManagers.poll()) != null;) {
+            fileManager.close();
+        }
+    }
+
+    private static String className(String code) {
+        Matcher matcher = CLASS_NAME.matcher(code);
+        return matcher.find() ? matcher.group(1) : "Main";
+    }
+
+    private static String severity(Diagnostic.Kind kind) {
+        switch (kind) {
+            case ERROR:
+                return "error";
+            case WARNING:
+            case MANDATORY_WARNING:
+                return "warning";
+            default:
+                return "note";
+        }
+    }
+
+    // --- The editor's text as a javac source file (named after its public class, as javac requires) ---
+    private static class SourceFile extends SimpleJavaFileObject {
+
+        private final String code;
+
+        SourceFile(String className, String code) {
+            super(URI.create("string:///" + className + Kind.SOURCE.extension), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+
+    // --- Offset -> 1-based line/column ---
+    private static class LineMap {
+
+        private final List<Integer> lineStarts = new ArrayList<>();
+
+        LineMap(String code) {
+            lineStarts.add(0);
+            for (int i = 0; i < code.length(); i++) {
+                if (code.charAt(i) == '\n') {
+                    lineStarts.add(i + 1);
+                }
+            }
+        }
+
+        long line(long offset) {
+            int lo = 0;
+            int hi = lineStarts.size() - 1;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (lineStarts.get(mid) <= offset) {
+                    lo = mid;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return lo + 1;
+        }
+
+        long column(long offset) {
+            return offset - lineStarts.get((int) line(offset) - 1) + 1;
+        }
+    }
+}
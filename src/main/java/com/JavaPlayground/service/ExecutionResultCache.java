@@ -0,0 +1,124 @@
+package com.JavaPlayground.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers the output of deterministic programs (same code + same stdin =
+ * same output), so textbook exercises that everyone runs don't spawn a JVM
+ * every time. Opt-in with {@code compiler.cache.enabled=true}.
+ *
+ * Code that obviously depends on time, randomness or the environment is never
+ * cached. What a denylist can't see (an array or Object printed with its
+ * identity hash, HashSet order of such objects, races) is caught by replaying
+ * an output only once two real runs produced exactly the same one; a program
+ * whose runs differed is remembered as such and always runs for real.
+ *
+ * LRU-evicted by entry count and by total cached output size.
+ */
+@Component
+public class ExecutionResultCache {
+
+    // Anything that can make two runs differ disqualifies the program
+    private static final Pattern NON_DETERMINISTIC = Pattern.compile(String.join("|",
+            "Random", "Math\\.random", "currentTimeMillis", "nanoTime", "\\.now\\(", "Clock", "new Date\\(",
+            "UUID", "Thread", "Executor", "CompletableFuture", "ForkJoin", "parallel",
+            "getenv", "getProperty", "ProcessHandle", "Runtime\\.getRuntime", "ManagementFactory",
+            "hashCode", "identityHashCode", "new Object\\(", "Files", "File\\(", "Socket", "URL", "HttpClient"));
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long maxChars;
+    private final long maxRunMillis;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalChars;
+
+    public ExecutionResultCache(
+            @Value("${compiler.cache.enabled:false}") boolean enabled,
+            @Value("${compiler.cache.max-entries:1000}") int maxEntries,
+            @Value("${compiler.cache.max-chars:8388608}") long maxChars,
+            @Value("${compiler.cache.max-run-millis:2000}") long maxRunMillis) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.maxChars = maxChars;
+        this.maxRunMillis = maxRunMillis;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Cache key for a program, or null if it must never be cached. */
+    public String keyFor(String code, String input) {
+        if (!enabled || code == null || NON_DETERMINISTIC.matcher(code).find()) {
+            return null;
+        }
+        return sha256(code) + ":" + sha256(input == null ? "" : input);
+    }
+
+    /** The output to replay, once two runs have agreed on it; otherwise null. */
+    public synchronized String get(String key) {
+        Entry entry = key == null ? null : entries.get(key);
+        return entry != null && entry.confirmed ? entry.output : null;
+    }
+
+    /**
+     * Records the output of a clean run that finished within the time bound.
+     * The first run of a program is only remembered; a second identical one
+     * makes it replayable, a different one marks the program as unstable.
+     */
+    public synchronized void put(String key, String output, long runMillis) {
+        if (key == null || runMillis > maxRunMillis || output.length() > maxChars) {
+            return;
+        }
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entries.put(key, new Entry(output));
+            totalChars += output.length();
+        } else if (entry.output == null) {
+            return; // Already seen to vary between runs
+        } else if (entry.output.equals(output)) {
+            entry.confirmed = true;
+        } else {
+            // Keep the key (it costs no output) so this program is not tried again
+            totalChars -= entry.output.length();
+            entry.output = null;
+            entry.confirmed = false;
+        }
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while ((entries.size() > maxEntries || totalChars > maxChars) && eldest.hasNext()) {
+            Entry evicted = eldest.next();
+            totalChars -= evicted.output != null ? evicted.output.length() : 0;
+            eldest.remove();
+        }
+    }
+
+    private static final class Entry {
+        String output;     // Null once two runs disagreed
+        boolean confirmed; // A second run produced the same output
+
+        Entry(String output) {
+            this.output = output;
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every JVM ships SHA-256
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.JavaPlayground.service;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -11,7 +13,13 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Created on the first AI request, not at startup (GeminiController looks it up on use)
 @Service
+@Lazy
 public class GeminiService {
 
     @Value("${gemini.api.key}")
@@ -21,6 +29,15 @@ public class GeminiService {
     private String apiUrl;
 
     private final RestTemplate restTemplate = new RestTemplate();
+    private final MeterRegistry meterRegistry;
+    // Code beyond this (estimated tokens) is trimmed to main() and what it calls, then cut
+    private final int maxCodeTokens;
+
+    public GeminiService(MeterRegistry meterRegistry,
+            @Value("${gemini.prompt.max-code-tokens:4000}") int maxCodeTokens) {
+        this.meterRegistry = meterRegistry;
+        this.maxCodeTokens = maxCodeTokens;
+    }
 
     // --- 1. BRUTAL TESTER (QA Mode) ---
     public String generateTestCases(String code) {
@@ -31,10 +48,9 @@ public class GeminiService {
                 + "Input: <raw input>\n"
                 + "Expected Output: <mathematically correct answer>\n"
                 + "[Reason: <why this breaks the code>]\n\n"
-                + "Do NOT provide hints or fixes. Just the test cases.\n\n"
-                + "Code:\n" + code;
+                + "Do NOT provide hints or fixes. Just the test cases.\n\n";
 
-        return callGeminiApi(prompt);
+        return callGeminiApi("testcases", buildPrompt("testcases", prompt, code));
     }
 
     // --- 2. HINT GIVER (Mentor Mode) ---
@@ -47,14 +63,40 @@ public class GeminiService {
                 + "Format strictly as:\n"
                 + "1. **Observation:** <What is wrong?>\n"
                 + "2. **Fix:** <How to solve it?>\n"
-                + "3. **Concept:** <Explain the concept briefly>\n\n"
-                + "Code:\n" + code;
+                + "3. **Concept:** <Explain the concept briefly>\n\n";
+
+        return callGeminiApi("hints", buildPrompt("hints", prompt, code));
+    }
+
+    // --- Instructions + the code, minified and kept within the token budget (see JavaPromptCompactor) ---
+    private String buildPrompt(String kind, String instructions, String code) {
+        JavaPromptCompactor.Result compacted = JavaPromptCompactor.compact(code, maxCodeTokens);
+        String header = instructions + "Code:\n";
+
+        int instructionTokens = JavaPromptCompactor.estimateTokens(header);
+        summary("playground.ai.prompt.tokens", "Estimated tokens of the prompt as sent", kind)
+                .record(instructionTokens + compacted.getTokens());
+        summary("playground.ai.prompt.raw.tokens", "Estimated tokens had the code been sent as typed", kind)
+                .record(instructionTokens + compacted.getRawTokens());
+        if (compacted.isTrimmed() || compacted.isTruncated()) {
+            meterRegistry.counter("playground.ai.prompt.reduced", "kind", kind,
+                    "how", compacted.isTruncated() ? "truncated" : "trimmed").increment();
+        }
+        return header + compacted.getCode();
+    }
 
-        return callGeminiApi(prompt);
+    private DistributionSummary summary(String name, String description, String kind) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit("tokens")
+                .tag("kind", kind)
+                .register(meterRegistry);
     }
 
     // --- Helper Method to handle the API Call ---
-    private String callGeminiApi(String prompt) {
+    private String callGeminiApi(String kind, String prompt) {
+        long start = System.nanoTime();
+        String outcome = "error";
         try {
             // 1. Prepare Request Body
             Map<String, Object> requestBody = Map.of(
@@ -82,14 +124,22 @@ public class GeminiService {
                 if (candidates != null && !candidates.isEmpty()) {
                     Map<String, Object> content = (Map<String, Object>) candidates.get(0).get("content");
                     List<Map<String, Object>> parts = (List<Map<String, Object>>) content.get("parts");
+                    outcome = "success";
                     return (String) parts.get(0).get("text");
                 }
             }
+            outcome = "empty";
             return "AI provided no response.";
 
         } catch (Exception e) {
             e.printStackTrace();
             return "Error calling Gemini API: " + e.getMessage();
+        } finally {
+            Timer.builder("playground.ai.request")
+                    .description("Round trip to the AI provider")
+                    .tags("kind", kind, "outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
 }
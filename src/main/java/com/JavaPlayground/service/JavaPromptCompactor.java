@@ -0,0 +1,484 @@
+package com.JavaPlayground.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Shrinks a Java source before it goes into an AI prompt.
+ *
+ * 1. Minify: a small lexer drops comments and indentation and collapses runs
+ *    of spaces. String, char and text block literals are copied as they are,
+ *    so "http://x" or "a  b" survive. Every line break is kept (blank lines
+ *    cost one token each), so line N of the prompt is line N of the editor and
+ *    the model's "line 12" means what the student sees.
+ * 2. Over budget: keep main() (and constructors and @Override methods, which
+ *    are called for us) plus every method reachable from them or from field
+ *    initializers and initializer blocks; a dropped method leaves a one-line
+ *    note and its line breaks behind.
+ * 3. Still over budget: cut whole lines from the end.
+ *
+ * Works on code that does not compile, which is the usual case for hints.
+ */
+final class JavaPromptCompactor {
+
+    // Words that can be followed by "(" without being a method call or declaration
+    private static final Set<String> NOT_METHODS = Set.of(
+            "if", "for", "while", "switch", "catch", "synchronized", "return", "throw", "new", "else",
+            "try", "do", "case", "assert", "super", "this", "yield");
+    private static final Set<String> TYPE_KEYWORDS = Set.of("class", "interface", "enum", "record");
+
+    private JavaPromptCompactor() {
+    }
+
+    static Result compact(String code, int maxTokens) {
+        String source = code == null ? "" : code;
+        String minified = minify(source);
+        Result result = new Result(estimateTokens(source));
+        result.code = minified;
+        if (estimateTokens(minified) > maxTokens) {
+            String reachable = keepReachableMethods(minified);
+            if (reachable != null) {
+                result.code = reachable;
+                result.trimmed = true;
+            }
+            if (estimateTokens(result.code) > maxTokens) {
+                result.code = truncate(result.code, maxTokens);
+                result.truncated = true;
+            }
+        }
+        result.tokens = estimateTokens(result.code);
+        return result;
+    }
+
+    // --- 1. Minify ---
+
+    static String minify(String code) {
+        StringBuilder out = new StringBuilder(code.length());
+        boolean pendingSpace = false;
+        int pendingNewlines = 0;
+        int i = 0;
+        int n = code.length();
+        while (i < n) {
+            char c = code.charAt(i);
+            if (c == '\n') {
+                pendingNewlines++;
+                i++;
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                i++;
+                continue;
+            }
+            if (c == '/' && i + 1 < n && code.charAt(i + 1) == '/') {
+                while (i < n && code.charAt(i) != '\n') {
+                    i++;
+                }
+                continue;
+            }
+            if (c == '/' && i + 1 < n && code.charAt(i + 1) == '*') {
+                int end = code.indexOf("*/", i + 2);
+                end = end < 0 ? n : end + 2;
+                // A comment between two tokens still separates them, and its lines still count
+                pendingNewlines += newlines(code, i, end);
+                pendingSpace = true;
+                i = end;
+                continue;
+            }
+
+            if (pendingNewlines > 0) {
+                out.append("\n".repeat(pendingNewlines));
+            } else if (pendingSpace && out.length() > 0) {
+                out.append(' ');
+            }
+            pendingSpace = false;
+            pendingNewlines = 0;
+
+            int end = c == '"' || c == '\'' ? literalEnd(code, i) : i + 1;
+            out.append(code, i, end);
+            i = end;
+        }
+        return out.toString();
+    }
+
+    private static int newlines(String code, int from, int to) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (code.charAt(i) == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Index just past the string/char/text block literal starting at i
+    private static int literalEnd(String code, int start) {
+        int n = code.length();
+        char quote = code.charAt(start);
+        if (quote == '"' && code.startsWith("\"\"\"", start)) {
+            int i = start + 3;
+            while (i < n) {
+                if (code.charAt(i) == '\\') {
+                    i += 2;
+                } else if (code.startsWith("\"\"\"", i)) {
+                    return i + 3;
+                } else {
+                    i++;
+                }
+            }
+            return n;
+        }
+        int i = start + 1;
+        while (i < n) {
+            char c = code.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == quote) {
+                return i + 1;
+            } else if (c == '\n') {
+                return i; // Unterminated: stop at the end of the line like javac does
+            } else {
+                i++;
+            }
+        }
+        return n;
+    }
+
+    // --- Token estimate ---
+
+    /**
+     * Rough BPE token count: a word costs one token per 4 characters (long
+     * identifiers split into pieces), each symbol one token, a single space
+     * nothing (it merges into the next word) and longer runs of spaces one
+     * token per 4. Line breaks merge the same way: a run of them (blank lines)
+     * costs one token per 4. Close enough to the provider's count to budget
+     * with, without shipping its tokenizer.
+     */
+    static int estimateTokens(String text) {
+        int tokens = 0;
+        int word = 0;
+        int spaces = 0;
+        int newlines = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                tokens += (word + 3) / 4 + spaces / 4;
+                word = 0;
+                spaces = 0;
+                newlines++;
+                continue;
+            }
+            tokens += (newlines + 3) / 4;
+            newlines = 0;
+            if (Character.isLetterOrDigit(c) || c == '_' || c == '$') {
+                tokens += spaces / 4; // All but the first space: (spaces - 1 + 3) / 4
+                spaces = 0;
+                word++;
+                continue;
+            }
+            tokens += (word + 3) / 4;
+            word = 0;
+            if (Character.isWhitespace(c)) {
+                spaces++;
+                continue;
+            }
+            tokens += spaces / 4 + 1;
+            spaces = 0;
+        }
+        return tokens + (word + 3) / 4 + spaces / 4 + (newlines + 3) / 4;
+    }
+
+    // --- 2. Keep main() and what it calls ---
+
+    /** The code without unreachable methods, or null if there is no main() or nothing to drop. */
+    private static String keepReachableMethods(String code) {
+        List<Token> tokens = tokenize(code);
+        List<Method> methods = findMethods(code, tokens);
+        Set<String> typeNames = new LinkedHashSet<>();
+        for (int t = 0; t + 1 < tokens.size(); t++) {
+            if (TYPE_KEYWORDS.contains(tokens.get(t).text) && tokens.get(t + 1).isWord()) {
+                typeNames.add(tokens.get(t + 1).text);
+            }
+        }
+
+        Deque<Method> pending = new ArrayDeque<>();
+        Set<Method> reachable = new LinkedHashSet<>();
+        for (Method method : methods) {
+            // Constructors stay too: enum constants and field initializers call them implicitly
+            if (method.name.equals("main") || method.override || typeNames.contains(method.name)) {
+                reachable.add(method);
+                pending.add(method);
+            }
+        }
+        if (pending.isEmpty()) {
+            return null;
+        }
+        // Field initializers, static {} and instance initializers run without being called from main
+        markCalled(calledOutsideMethods(tokens, methods), methods, reachable, pending);
+        while (!pending.isEmpty()) {
+            Method method = pending.poll();
+            markCalled(calledNames(tokens, method.bodyToken, method.endToken), methods, reachable, pending);
+        }
+        if (reachable.size() == methods.size()) {
+            return null;
+        }
+
+        StringBuilder out = new StringBuilder();
+        int copied = 0;
+        for (Method method : methods) {
+            // Nested in a method we already dropped
+            if (method.start < copied) {
+                continue;
+            }
+            if (!reachable.contains(method)) {
+                // The note sits where the declaration began; the line breaks keep later line numbers right
+                int declaration = tokens.get(method.firstToken).start;
+                out.append(code, copied, declaration)
+                        .append("/* ").append(method.name).append("() not shown: not reachable from main */")
+                        .append("\n".repeat(newlines(code, declaration, method.end)));
+                copied = method.end;
+            }
+        }
+        out.append(code, copied, code.length());
+        return out.toString();
+    }
+
+    private static void markCalled(Set<String> called, List<Method> methods, Set<Method> reachable,
+            Deque<Method> pending) {
+        for (Method candidate : methods) {
+            if (called.contains(candidate.name) && reachable.add(candidate)) {
+                pending.add(candidate);
+            }
+        }
+    }
+
+    // Calls in type bodies between the methods (initializers), skipping every method's header and body
+    private static Set<String> calledOutsideMethods(List<Token> tokens, List<Method> methods) {
+        Set<String> names = new LinkedHashSet<>();
+        int from = 0;
+        for (Method method : methods) {
+            if (method.nameToken < from) {
+                continue; // Nested in the method we just skipped
+            }
+            names.addAll(calledNames(tokens, from, method.nameToken - 1));
+            from = method.endToken + 1;
+        }
+        names.addAll(calledNames(tokens, from, tokens.size() - 1));
+        return names;
+    }
+
+    private static Set<String> calledNames(List<Token> tokens, int from, int to) {
+        Set<String> names = new LinkedHashSet<>();
+        for (int t = from; t <= to; t++) {
+            Token token = tokens.get(t);
+            if (!token.isWord()) {
+                continue;
+            }
+            boolean call = t + 1 < tokens.size() && tokens.get(t + 1).is("(");
+            boolean reference = t > 0 && tokens.get(t - 1).is("::");
+            if (call || reference) {
+                names.add(token.text);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Methods and constructors with a body, declared directly in a class,
+     * interface, enum or record body (nested types included), in source order.
+     */
+    private static List<Method> findMethods(String code, List<Token> tokens) {
+        List<Method> methods = new ArrayList<>();
+        Deque<Boolean> braces = new ArrayDeque<>(); // Per open brace: is it a type body?
+        boolean typeBodyNext = false;
+        int memberStart = 0; // Where the current member's modifiers and annotations begin
+
+        for (int t = 0; t < tokens.size(); t++) {
+            Token token = tokens.get(t);
+            boolean inTypeBody = !braces.isEmpty() && braces.peek();
+
+            if (token.is("{")) {
+                braces.push(typeBodyNext);
+                typeBodyNext = false;
+                memberStart = token.end;
+            } else if (token.is("}")) {
+                braces.poll();
+                memberStart = token.end;
+            } else if (token.is(";") && inTypeBody) {
+                memberStart = token.end;
+            } else if (token.isWord() && TYPE_KEYWORDS.contains(token.text)
+                    && !(t > 0 && (tokens.get(t - 1).is(".") || tokens.get(t - 1).is("@")))) {
+                typeBodyNext = true;
+            } else if (inTypeBody && token.isWord() && !NOT_METHODS.contains(token.text)
+                    && t + 1 < tokens.size() && tokens.get(t + 1).is("(")
+                    && !(t > 0 && isNotDeclaration(tokens.get(t - 1)))) {
+                int close = matching(tokens, t + 1, "(", ")");
+                int body = close + 1;
+                // "name(...) {" or "name(...) throws A, B {"; anything else is a field, enum constant, ...
+                if (body < tokens.size() && tokens.get(body).is("throws")) {
+                    while (body < tokens.size() && !tokens.get(body).is("{") && !tokens.get(body).is(";")) {
+                        body++;
+                    }
+                }
+                if (body < tokens.size() && tokens.get(body).is("{")) {
+                    int end = matching(tokens, body, "{", "}");
+                    Method method = new Method();
+                    method.name = token.text;
+                    method.start = memberStart;
+                    method.firstToken = firstTokenAt(tokens, memberStart, t);
+                    method.nameToken = t;
+                    method.bodyToken = body;
+                    method.endToken = Math.min(end, tokens.size() - 1);
+                    method.end = tokens.get(method.endToken).end;
+                    method.override = code.substring(memberStart, token.start).contains("@Override");
+                    methods.add(method);
+                    // Continue inside the body so local and anonymous classes are seen too
+                    braces.push(false);
+                    t = body;
+                    memberStart = tokens.get(body).end;
+                }
+            }
+        }
+        return methods;
+    }
+
+    // First token of a member starting at offset (its first modifier or annotation)
+    private static int firstTokenAt(List<Token> tokens, int offset, int nameToken) {
+        int t = nameToken;
+        while (t > 0 && tokens.get(t - 1).start >= offset) {
+            t--;
+        }
+        return t;
+    }
+
+    // "new Foo(", "@Annotation(", "record Point(": a "(" that does not start a method
+    private static boolean isNotDeclaration(Token previous) {
+        return previous.is("new") || previous.is("@") || previous.is(".") || TYPE_KEYWORDS.contains(previous.text);
+    }
+
+    // Index of the token closing the bracket at open (or the last token if unbalanced)
+    private static int matching(List<Token> tokens, int open, String left, String right) {
+        int depth = 0;
+        for (int t = open; t < tokens.size(); t++) {
+            if (tokens.get(t).is(left)) {
+                depth++;
+            } else if (tokens.get(t).is(right) && --depth == 0) {
+                return t;
+            }
+        }
+        return tokens.size() - 1;
+    }
+
+    // Words, literals and symbols of already-minified code (so no comments)
+    private static List<Token> tokenize(String code) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        int n = code.length();
+        while (i < n) {
+            char c = code.charAt(i);
+            int end;
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            } else if (c == '"' || c == '\'') {
+                end = literalEnd(code, i);
+            } else if (Character.isJavaIdentifierPart(c)) {
+                end = i;
+                while (end < n && Character.isJavaIdentifierPart(code.charAt(end))) {
+                    end++;
+                }
+            } else if (code.startsWith("::", i)) {
+                end = i + 2;
+            } else {
+                end = i + 1;
+            }
+            tokens.add(new Token(code.substring(i, end), i, end));
+            i = end;
+        }
+        return tokens;
+    }
+
+    // --- 3. Cut lines from the end ---
+
+    private static String truncate(String code, int maxTokens) {
+        String marker = "\n// ... (rest of the code cut to fit the prompt size limit)";
+        int budget = maxTokens - estimateTokens(marker);
+        StringBuilder out = new StringBuilder();
+        int used = 0;
+        for (String line : code.split("\n", -1)) {
+            int cost = estimateTokens(line) + 1;
+            if (used + cost > budget) {
+                break;
+            }
+            if (out.length() > 0) {
+                out.append('\n');
+            }
+            out.append(line);
+            used += cost;
+        }
+        return out + marker;
+    }
+
+    private static final class Token {
+        final String text;
+        final int start;
+        final int end;
+
+        Token(String text, int start, int end) {
+            this.text = text;
+            this.start = start;
+            this.end = end;
+        }
+
+        boolean is(String value) {
+            return text.equals(value);
+        }
+
+        boolean isWord() {
+            return Character.isJavaIdentifierStart(text.charAt(0));
+        }
+    }
+
+    private static final class Method {
+        String name;
+        int start;      // Where its member begins (just past the previous member)
+        int end;        // Just past the closing brace
+        int firstToken; // Index of its first modifier/annotation (or return type)
+        int nameToken;  // Index of its name
+        int bodyToken;  // Index of the opening brace
+        int endToken;   // Index of the closing brace
+        boolean override;
+    }
+
+    static final class Result {
+        private final int rawTokens;
+        private String code;
+        private int tokens;
+        private boolean trimmed;   // Methods not reachable from main() were dropped
+        private boolean truncated; // Lines were cut from the end
+
+        Result(int rawTokens) {
+            this.rawTokens = rawTokens;
+        }
+
+        String getCode() {
+            return code;
+        }
+        int getRawTokens() {
+            return rawTokens;
+        }
+        int getTokens() {
+            return tokens;
+        }
+        boolean isTrimmed() {
+            return trimmed;
+        }
+        boolean isTruncated() {
+            return truncated;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.JavaPlayground.terminal;
+
+/**
+ * Fixed-size buffer that keeps only the most recent program output.
+ * Every character gets an absolute offset, so a reconnecting client can ask
+ * for "everything after offset X" and we replay whatever is still retained.
+ */
+public class OutputRingBuffer {
+
+    private final char[] buffer;
+    private long endOffset; // Total characters ever written
+
+    public OutputRingBuffer(int capacity) {
+        this.buffer = new char[capacity];
+    }
+
+    public synchronized void append(String text) {
+        int length = text.length();
+        // Only the tail fits if a single chunk is bigger than the whole buffer
+        int from = Math.max(0, length - buffer.length);
+        for (int i = from; i < length; i++) {
+            buffer[(int) ((endOffset + i) % buffer.length)] = text.charAt(i);
+        }
+        endOffset += length;
+    }
+
+    /** Offset of the oldest character still held in the buffer. */
+    public synchronized long getStartOffset() {
+        return Math.max(0, endOffset - buffer.length);
+    }
+
+    public synchronized long getEndOffset() {
+        return endOffset;
+    }
+
+    /**
+     * Returns retained output from the given offset onwards. If the client is
+     * further behind than the buffer reaches, the result starts at
+     * {@link #getStartOffset()} instead.
+     */
+    public synchronized String readFrom(long offset) {
+        long from = Math.max(offset, getStartOffset());
+        if (from >= endOffset) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder((int) (endOffset - from));
+        for (long i = from; i < endOffset; i++) {
+            sb.append(buffer[(int) (i % buffer.length)]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,153 @@
+package com.JavaPlayground.terminal;
+
+import java.io.IOException;
+
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.JavaPlayground.execution.ExecutionHandle;
+
+/**
+ * One program execution on the terminal. It outlives the WebSocket that
+ * started it: when the socket drops the program keeps running (for a grace
+ * period) and its output piles up in a ring buffer until a client resumes.
+ *
+ * All socket writes go through this object's lock, so replayed output and
+ * live output can never interleave on the wire.
+ */
+public class TerminalSession {
+
+    private final String token;
+    private final OutputRingBuffer output;
+
+    private WebSocketSession socket; // null while detached
+    private long detachedAt;
+    private String finalMessage; // "EXIT:..." or "ERROR:...", once finished
+    private boolean expired; // Reaped after the grace period: no more resumes
+
+    private volatile ExecutionHandle execution;
+    private volatile boolean released;
+
+    public TerminalSession(String token, int bufferChars) {
+        this.token = token;
+        this.output = new OutputRingBuffer(bufferChars);
+        this.detachedAt = System.currentTimeMillis();
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setExecution(ExecutionHandle execution) {
+        this.execution = execution;
+        if (released) {
+            // Stopped before the backend even got going: don't leave an orphan behind
+            execution.cancel();
+        }
+    }
+
+    public boolean isReleased() {
+        return released;
+    }
+
+    // --- 1. Socket attachment ---
+
+    /**
+     * Binds a socket to this session and replays everything the client missed
+     * since {@code fromOffset}. The client learns where the replay starts from
+     * the "RESUMED:" message so it can keep its own offset in sync.
+     *
+     * Returns false, without attaching, if the session has already expired.
+     */
+    public synchronized boolean attach(WebSocketSession ws, long fromOffset) {
+        if (expired) {
+            return false;
+        }
+        this.socket = ws;
+        long replayFrom = Math.max(fromOffset, output.getStartOffset());
+        send("RESUMED:" + replayFrom);
+        String missed = output.readFrom(replayFrom);
+        if (!missed.isEmpty()) {
+            send("OUTPUT:" + missed);
+        }
+        if (finalMessage != null) {
+            send(finalMessage);
+        }
+        return true;
+    }
+
+    /** Attaches a fresh socket for a brand-new run (nothing to replay yet). */
+    public synchronized void attachNew(WebSocketSession ws) {
+        this.socket = ws;
+        send("SESSION:" + token);
+    }
+
+    public synchronized void detach(WebSocketSession ws) {
+        if (socket != null && socket.getId().equals(ws.getId())) {
+            socket = null;
+            detachedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Marks the session expired if it has been without a socket for longer than
+     * {@code millis}. Checked and set under the lock so a resume can't attach in between.
+     */
+    public synchronized boolean expireIfDetachedLongerThan(long millis) {
+        if (socket != null || System.currentTimeMillis() - detachedAt <= millis) {
+            return false;
+        }
+        expired = true;
+        return true;
+    }
+
+    // --- 2. Program output & lifecycle ---
+
+    public synchronized void appendOutput(String chunk) {
+        output.append(chunk);
+        send("OUTPUT:" + chunk);
+    }
+
+    /** Records the terminal message (exit code or error) for delivery and replay. */
+    public synchronized void finish(String message) {
+        if (released) {
+            return; // Stopped or expired: nobody is waiting for the result
+        }
+        if (finalMessage == null) {
+            finalMessage = message;
+            send(message);
+        }
+        release();
+    }
+
+    public void sendInput(String input) {
+        ExecutionHandle handle = execution;
+        if (handle != null) {
+            handle.sendInput(input + "\n"); // Append newline!
+        }
+    }
+
+    /** Kills the program if it is still running. The backend cleans up its working directory. */
+    public void release() {
+        released = true;
+        ExecutionHandle handle = execution;
+        if (handle != null) {
+            handle.cancel();
+        }
+    }
+
+    private void send(String message) {
+        if (socket == null || !socket.isOpen()) {
+            return;
+        }
+        try {
+            synchronized (socket) { // The REPL may write to the same socket
+                socket.sendMessage(new TextMessage(message));
+            }
+        } catch (IOException e) {
+            // The socket is going away; output stays in the buffer for a resume
+            socket = null;
+            detachedAt = System.currentTimeMillis();
+        }
+    }
+}
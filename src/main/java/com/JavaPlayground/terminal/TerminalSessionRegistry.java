@@ -0,0 +1,112 @@
+package com.JavaPlayground.terminal;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps terminal sessions alive independently of WebSocket connections.
+ * A session is only torn down after it has been without a socket for the
+ * configured grace period (or when the client explicitly stops it).
+ */
+@Component
+public class TerminalSessionRegistry {
+
+    private final Map<String, TerminalSession> sessionsByToken = new ConcurrentHashMap<>();
+    private final Map<String, TerminalSession> sessionsBySocket = new ConcurrentHashMap<>();
+
+    private final long graceMillis;
+    private final int bufferChars;
+    private final ScheduledExecutorService reaper;
+
+    public TerminalSessionRegistry(
+            @Value("${terminal.session.grace-seconds:60}") long graceSeconds,
+            @Value("${terminal.session.buffer-chars:65536}") int bufferChars) {
+        this.graceMillis = TimeUnit.SECONDS.toMillis(graceSeconds);
+        this.bufferChars = bufferChars;
+        this.reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "terminal-session-reaper");
+            t.setDaemon(true);
+            return t;
+        });
+        this.reaper.scheduleWithFixedDelay(this::reapExpired, 5, 5, TimeUnit.SECONDS);
+    }
+
+    /** Starts a new session for a RUN command, replacing whatever the socket had before. */
+    public TerminalSession create(WebSocketSession ws) {
+        discard(ws);
+        TerminalSession session = new TerminalSession(UUID.randomUUID().toString(), bufferChars);
+        sessionsByToken.put(session.getToken(), session);
+        sessionsBySocket.put(ws.getId(), session);
+        session.attachNew(ws);
+        return session;
+    }
+
+    /**
+     * Reattaches a socket to an existing session, replacing whatever other
+     * session the socket had. Returns false if the token is unknown or expired.
+     */
+    public boolean resume(String token, WebSocketSession ws, long fromOffset) {
+        TerminalSession session = sessionsByToken.get(token);
+        if (session == null) {
+            return false;
+        }
+        if (sessionsBySocket.get(ws.getId()) != session) {
+            discard(ws); // Like create(): one session per socket, or the old one leaks and both write to it
+        }
+        if (!session.attach(ws, fromOffset)) {
+            return false; // Expired between the lookup and the attach
+        }
+        sessionsBySocket.put(ws.getId(), session);
+        return true;
+    }
+
+    public TerminalSession forSocket(WebSocketSession ws) {
+        return sessionsBySocket.get(ws.getId());
+    }
+
+    /** Socket went away: keep the session running, start the grace period. */
+    public void detach(WebSocketSession ws) {
+        TerminalSession session = sessionsBySocket.remove(ws.getId());
+        if (session != null) {
+            session.detach(ws);
+        }
+    }
+
+    /** Client asked to stop: kill the program right away, no grace period. */
+    public void discard(WebSocketSession ws) {
+        TerminalSession session = sessionsBySocket.remove(ws.getId());
+        if (session != null) {
+            sessionsByToken.remove(session.getToken());
+            session.detach(ws); // Late output of the killed program must not reach the socket's next session
+            session.release();
+        }
+    }
+
+    void reapExpired() {
+        sessionsByToken.values().removeIf(session -> {
+            if (session.expireIfDetachedLongerThan(graceMillis)) {
+                session.release();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reaper.shutdownNow();
+        sessionsByToken.values().forEach(TerminalSession::release);
+        sessionsByToken.clear();
+        sessionsBySocket.clear();
+    }
+}
@@ -0,0 +1,23 @@
+-- Schema as Hibernate's ddl-auto=update created it. Existing databases are
+-- baselined at version 1 (spring.flyway.baseline-on-migrate), so this only
+-- runs on empty ones.
+
+CREATE TABLE IF NOT EXISTS users (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    email       VARCHAR(255) NOT NULL,
+    name        VARCHAR(255),
+    provider    VARCHAR(255) NOT NULL,
+    provider_id VARCHAR(255),
+    last_code   LONGTEXT,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email_provider UNIQUE (email, provider)
+);
+
+CREATE TABLE IF NOT EXISTS programs (
+    id      BIGINT       NOT NULL AUTO_INCREMENT,
+    name    VARCHAR(255),
+    code    TEXT,
+    user_id BIGINT       NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_programs_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
@@ -0,0 +1,11 @@
+-- Indexes for the per-request lookups. (email, provider) is already covered
+-- by the unique constraint, which also serves email-only lookups.
+
+-- GitHub fallback in ProgramController looks users up by login/display name
+CREATE INDEX idx_users_name ON users (name);
+
+-- Provider account id, stable even when the user changes their e-mail
+CREATE INDEX idx_users_provider_provider_id ON users (provider, provider_id);
+
+-- findByUserOrderByIdDesc: filter and sort straight from the index
+CREATE INDEX idx_programs_user_id_id ON programs (user_id, id);
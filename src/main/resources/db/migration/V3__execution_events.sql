@@ -0,0 +1,18 @@
+-- Write-behind log of program runs (see ExecutionEventLog), for capacity planning.
+-- The code itself is not stored, only its SHA-256 and length.
+CREATE TABLE execution_events (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    occurred_at DATETIME(3)  NOT NULL,
+    source      VARCHAR(16)  NOT NULL,
+    user_key    VARCHAR(255),
+    outcome     VARCHAR(32)  NOT NULL,
+    exit_code   INT,
+    wall_millis BIGINT       NOT NULL,
+    cpu_millis  BIGINT       NOT NULL,
+    code_hash   CHAR(64)     NOT NULL,
+    code_chars  INT          NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Both analytics queries filter on a time window first
+CREATE INDEX idx_execution_events_occurred_at ON execution_events (occurred_at);
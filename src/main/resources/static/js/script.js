@@ -45,7 +45,9 @@ const runBtn = document.getElementById("runBtn");
 const copyBtn = document.getElementById("copyBtn");
 const aiBtn = document.getElementById("aiBtn");
 const hintBtn = document.getElementById("hintBtn"); // Make sure this exists in HTML
+const benchBtn = document.getElementById("benchBtn");
 const saveBtn = document.getElementById("saveBtn");
+const replToggle = document.getElementById("replToggle");
 
 // Terminal Elements
 const terminalBody = document.getElementById("terminalBody");
@@ -71,6 +73,12 @@ const saveModalTitle = document.getElementById("saveModalTitle");
 
 // State Variables
 let socket = null;
+let sessionToken = null; // Lets us reattach to a running program after a drop
+let outputOffset = 0; // How much program output we have already shown
+let reconnectTimer = null;
+let reconnectAttempts = 0;
+let replSocket = null; // Stays open in REPL mode so the JShell keeps its state
+const MAX_RECONNECT_ATTEMPTS = 8;
 let editorSizePercent = 60;
 let currentProgramId = null;
 let pendingDeleteId = null;
@@ -156,6 +164,8 @@ terminalInput.addEventListener("keydown", (e) => {
 
     if (socket && socket.readyState === WebSocket.OPEN) {
       socket.send("INPUT:" + text);
+    } else if (replSocket && replSocket.readyState === WebSocket.OPEN) {
+      replSocket.send("INPUT:" + text);
     } else {
       addToTerminal("Program is not running. Click Run first.", "system");
     }
@@ -167,47 +177,200 @@ terminalInput.addEventListener("keydown", (e) => {
 // 5. COMPILER & WEBSOCKET
 // ==========================================
 function connectAndRun() {
+  if (replToggle && replToggle.checked) return evaluateInRepl();
   clearErrors();
   addToTerminal("--- Compiling & Running ---", "system");
 
   runBtn.innerHTML = '<span class="btn-icon">⏳</span> Running...';
   runBtn.disabled = true;
 
-  if (socket) socket.close();
+  // Starting over: tell the server to kill the previous program right away
+  stopReconnecting();
+  if (socket) {
+    if (socket.readyState === WebSocket.OPEN) socket.send("STOP");
+    socket.onclose = null;
+    socket.close();
+  }
+  sessionToken = null;
+  outputOffset = 0;
+
+  openTerminalSocket((ws) => ws.send("RUN:" + editor.getValue()));
+}
+
+// REPL mode: one long-lived socket, only changed snippets get recompiled
+function evaluateInRepl() {
+  clearErrors();
+  runBtn.innerHTML = '<span class="btn-icon">⏳</span> Evaluating...';
+  runBtn.disabled = true;
+
+  if (replSocket && replSocket.readyState === WebSocket.OPEN) {
+    replSocket.send("REPL:" + editor.getValue());
+    return;
+  }
+
+  replSocket = new WebSocket("ws://localhost:8080/terminal");
+  replSocket.onopen = () => {
+    addToTerminal("--- REPL started (state is kept between runs) ---", "system");
+    replSocket.send("REPL:" + editor.getValue());
+  };
+  replSocket.onmessage = (event) => {
+    const msg = event.data;
+    if (msg.startsWith("OUTPUT:")) {
+      addToTerminal(msg.substring(7), "normal");
+    } else if (msg.startsWith("ERROR:")) {
+      const errorText = msg.substring(6);
+      addToTerminal(errorText, "error");
+      highlightErrorLines(errorText);
+    } else if (msg.startsWith("REPL_DONE:")) {
+      addToTerminal("=== Evaluated in " + msg.substring(10) + " ms ===", "system");
+      runBtn.innerHTML = '<span class="btn-icon">▶</span> Run';
+      runBtn.disabled = false;
+    }
+  };
+  replSocket.onclose = () => {
+    replSocket = null;
+    runBtn.innerHTML = '<span class="btn-icon">▶</span> Run';
+    runBtn.disabled = false;
+  };
+}
 
+if (replToggle) {
+  replToggle.addEventListener("change", () => {
+    // Leaving REPL mode frees the JShell on the server
+    if (!replToggle.checked && replSocket) replSocket.close();
+  });
+}
+
+// Opens the terminal socket. Used for both fresh runs and resumes.
+function openTerminalSocket(onOpen) {
   socket = new WebSocket("ws://localhost:8080/terminal");
 
   socket.onopen = () => {
-    socket.send("RUN:" + editor.getValue());
+    reconnectAttempts = 0;
+    onOpen(socket);
     terminalInput.focus();
   };
 
   socket.onmessage = (event) => {
     const msg = event.data;
-    if (msg.startsWith("OUTPUT:")) {
-      addToTerminal(msg.substring(7), "normal");
+    if (msg.startsWith("SESSION:")) {
+      sessionToken = msg.substring(8);
+      outputOffset = 0;
+    } else if (msg.startsWith("RESUMED:")) {
+      outputOffset = parseInt(msg.substring(8));
+    } else if (msg.startsWith("OUTPUT:")) {
+      const text = msg.substring(7);
+      outputOffset += text.length;
+      addToTerminal(text, "normal");
     } else if (msg.startsWith("ERROR:")) {
+      sessionToken = null;
       const errorText = msg.substring(6);
       addToTerminal(errorText, "error");
       highlightErrorLines(errorText);
     } else if (msg.startsWith("EXIT:")) {
+      sessionToken = null;
       addToTerminal("=== " + msg.substring(5) + " ===", "system");
       socket.close();
+    } else if (msg.startsWith("EXPIRED:")) {
+      sessionToken = null;
+      addToTerminal(msg.substring(8), "error");
+      socket.close();
     }
   };
 
   socket.onclose = () => {
+    // Dropped while the program is still running: try to reattach
+    if (sessionToken) {
+      scheduleReconnect();
+      return;
+    }
     runBtn.innerHTML = '<span class="btn-icon">▶</span> Run';
     runBtn.disabled = false;
   };
 
   socket.onerror = () => {
+    if (sessionToken) return; // onclose handles the retry
     addToTerminal("Connection Error. Is the server running?", "error");
     runBtn.innerHTML = '<span class="btn-icon">▶</span> Run';
     runBtn.disabled = false;
   };
 }
 
+function scheduleReconnect() {
+  if (reconnectAttempts === 0) {
+    addToTerminal("Connection lost. Reconnecting...", "system");
+  }
+  if (reconnectAttempts >= MAX_RECONNECT_ATTEMPTS) {
+    addToTerminal("Could not reconnect to the running program.", "error");
+    sessionToken = null;
+    runBtn.innerHTML = '<span class="btn-icon">▶</span> Run';
+    runBtn.disabled = false;
+    return;
+  }
+  const delay = Math.min(1000 * 2 ** reconnectAttempts, 10000);
+  reconnectAttempts++;
+  reconnectTimer = setTimeout(() => {
+    const token = sessionToken;
+    openTerminalSocket((ws) => ws.send("RESUME:" + token + ":" + outputOffset));
+  }, delay);
+}
+
+function stopReconnecting() {
+  clearTimeout(reconnectTimer);
+  reconnectTimer = null;
+  reconnectAttempts = 0;
+}
+
+// --- As-you-type diagnostics: javac parse + attribute only, nothing is run ---
+const DIAGNOSTICS_DELAY_MS = 400;
+const diagnosticsClientId = Math.random().toString(36).slice(2); // Lets the server cancel our stale checks
+let diagnosticsTimer = null;
+let diagnosticsRequest = null;
+let diagnosticMarks = [];
+
+editor.on("change", () => {
+  clearTimeout(diagnosticsTimer);
+  diagnosticsTimer = setTimeout(checkDiagnostics, DIAGNOSTICS_DELAY_MS);
+});
+
+function checkDiagnostics() {
+  if (diagnosticsRequest) diagnosticsRequest.abort();
+  const request = new AbortController();
+  diagnosticsRequest = request;
+  fetch("/api/diagnostics", {
+    method: "POST",
+    headers: { "Content-Type": "application/json" },
+    body: JSON.stringify({ code: editor.getValue(), clientId: diagnosticsClientId }),
+    signal: request.signal,
+  })
+    .then((res) => res.json())
+    .then((data) => {
+      // Typed again meanwhile, or rate limited: keep what's shown until the next answer
+      if (request !== diagnosticsRequest || data.superseded || data.error) return;
+      showDiagnostics(data.diagnostics || []);
+    })
+    .catch(() => {}); // Aborted or offline; the next keystroke tries again
+}
+
+function showDiagnostics(diagnostics) {
+  clearErrors();
+  diagnosticMarks.forEach((mark) => mark.clear());
+  diagnosticMarks = [];
+  diagnostics.forEach((d) => {
+    if (!d.line || d.severity === "note") return;
+    const from = { line: d.line - 1, ch: d.column - 1 };
+    let to = { line: d.endLine - 1, ch: d.endColumn - 1 };
+    if (to.line === from.line && to.ch <= from.ch) to = { line: from.line, ch: from.ch + 1 };
+    diagnosticMarks.push(
+      editor.markText(from, to, { className: "cm-diagnostic-" + d.severity, title: d.message })
+    );
+    const dot = document.createElement("div");
+    dot.className = "error-gutter-marker" + (d.severity === "warning" ? " warning" : "");
+    dot.title = d.message;
+    editor.setGutterMarker(from.line, "error-gutter", dot);
+  });
+}
+
 // ==========================================
 // 6. AI FEATURES (TESTS & HINTS)
 // ==========================================
@@ -220,6 +383,7 @@ aiBtn.addEventListener("click", () => {
   })
     .then((res) => res.json())
     .then((data) => {
+      if (data.error) return addToTerminal(data.error, "error"); // Rate limited
       addToTerminal("\n", "normal");
       addToTerminal(data.testCases, "ai");
       addToTerminal("\n", "normal");
@@ -237,6 +401,7 @@ if (hintBtn) {
     })
       .then((res) => res.json())
       .then((data) => {
+        if (data.error) return addToTerminal(data.error, "error"); // Rate limited
         addToTerminal("\n--- HINTS ---\n", "system");
         addToTerminal(data.result, "ai");
         addToTerminal("-------------\n", "system");
@@ -245,6 +410,44 @@ if (hintBtn) {
   });
 }
 
+// Benchmark mode: times every static benchXxx() method of the class
+if (benchBtn) {
+  benchBtn.addEventListener("click", () => {
+    addToTerminal("Benchmarking... ⏱ (warmup, measurement and forks take a few seconds)", "system");
+    fetch("/api/benchmark", {
+      method: "POST",
+      headers: { "Content-Type": "application/json" },
+      body: JSON.stringify({ code: editor.getValue() }),
+    })
+      .then((res) => res.json())
+      .then((data) => {
+        if (data.output) addToTerminal(data.output, "normal");
+        if (data.results && data.results.length) {
+          addToTerminal(
+            `\n--- BENCHMARK (${data.forks} forks x ${data.measurementIterations} iterations of ${data.iterationMillis} ms, ${data.warmupIterations} warmup) ---`,
+            "system"
+          );
+          data.results.forEach((r) => {
+            if (!r.iterations) return addToTerminal(`${r.method}: no measurements`, "error");
+            addToTerminal(
+              `${r.method}: ${formatNanos(r.meanNanosPerOp)} ± ${formatNanos(r.errorNanosPerOp)} per op, ` +
+                `${Math.round(r.throughputOpsPerSecond).toLocaleString()} ops/s`,
+              "normal"
+            );
+          });
+        }
+        if (data.error) addToTerminal(data.error, "error");
+      })
+      .catch((err) => addToTerminal("Error running benchmark: " + err, "error"));
+  });
+}
+
+function formatNanos(ns) {
+  if (ns >= 1e6) return (ns / 1e6).toFixed(2) + " ms";
+  if (ns >= 1e3) return (ns / 1e3).toFixed(2) + " µs";
+  return ns.toFixed(2) + " ns";
+}
+
 // ==========================================
 // 7. TOAST NOTIFICATIONS
 // ==========================================
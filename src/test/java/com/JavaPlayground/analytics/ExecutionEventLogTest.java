@@ -0,0 +1,147 @@
+package com.JavaPlayground.analytics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Runs the real Flyway migrations on H2 in MySQL mode. The writer thread is kept out of the
+// way (flush-millis of an hour), so each test calls flush() itself.
+class ExecutionEventLogTest {
+
+	private static final long NEVER = 3_600_000;
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final List<Integer> batchSizes = new ArrayList<>();
+	private JdbcTemplate jdbc;
+	private ExecutionEventLog log;
+
+	@BeforeEach
+	void migrate() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:events;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+		Flyway flyway = Flyway.configure().dataSource(dataSource).cleanDisabled(false).load();
+		flyway.clean();
+		flyway.migrate();
+		jdbc = new JdbcTemplate(dataSource) {
+			@Override
+			public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+					ParameterizedPreparedStatementSetter<T> pss) {
+				batchSizes.add(batchArgs.size());
+				return super.batchUpdate(sql, batchArgs, batchSize, pss);
+			}
+		};
+	}
+
+	@AfterEach
+	void stopWriter() throws InterruptedException {
+		if (log != null) {
+			log.shutdown();
+		}
+	}
+
+	@Test
+	void flushWritesTheQueueInBatches() {
+		log = new ExecutionEventLog(jdbc, registry, true, 100, 2, NEVER);
+		for (int i = 0; i < 5; i++) {
+			log.record(event("class A" + i + " {}"));
+		}
+		assertThat(queued()).isEqualTo(5);
+
+		log.flush();
+
+		assertThat(batchSizes).containsExactly(2, 2, 1);
+		assertThat(rows()).isEqualTo(5);
+		assertThat(registry.counter("playground.execution.events.written").count()).isEqualTo(5);
+		assertThat(queued()).isZero();
+	}
+
+	@Test
+	void fullQueueDropsAndCountsInsteadOfBlocking() {
+		log = new ExecutionEventLog(jdbc, registry, true, 2, 500, NEVER);
+		for (int i = 0; i < 5; i++) {
+			log.record(event("class A {}"));
+		}
+
+		assertThat(queued()).isEqualTo(2);
+		assertThat(registry.counter("playground.execution.events.dropped").count()).isEqualTo(3);
+
+		log.flush();
+		assertThat(rows()).isEqualTo(2);
+	}
+
+	@Test
+	void disabledLogWritesNothing() {
+		log = new ExecutionEventLog(jdbc, registry, false, 100, 500, NEVER);
+		log.record(event("class A {}"));
+		log.flush();
+
+		assertThat(queued()).isZero();
+		assertThat(batchSizes).isEmpty();
+		assertThat(rows()).isZero();
+	}
+
+	@Test
+	void failedBatchIsCountedAndDropped() {
+		log = new ExecutionEventLog(jdbc, registry, true, 100, 2, NEVER);
+		jdbc.execute("DROP TABLE execution_events");
+		for (int i = 0; i < 3; i++) {
+			log.record(event("class A {}"));
+		}
+
+		log.flush();
+
+		assertThat(batchSizes).containsExactly(2, 1);
+		assertThat(registry.counter("playground.execution.events.failed").count()).isEqualTo(3);
+		assertThat(registry.counter("playground.execution.events.written").count()).isZero();
+		assertThat(queued()).isZero();
+	}
+
+	@Test
+	void occurredAtIsStoredInUtcWhateverTheJvmTimeZone() {
+		TimeZone original = TimeZone.getDefault();
+		TimeZone.setDefault(TimeZone.getTimeZone("Asia/Kolkata")); // +05:30: even the hour bucket would be off
+		try {
+			log = new ExecutionEventLog(jdbc, registry, true, 100, 500, NEVER);
+			ExecutionEvent event = event("class A {}");
+			log.record(event);
+			log.flush();
+
+			LocalDateTime stored = jdbc.queryForObject("SELECT occurred_at FROM execution_events",
+					LocalDateTime.class);
+			// DATETIME(3) rounds away the microseconds
+			assertThat(stored).isCloseTo(LocalDateTime.ofInstant(event.getOccurredAt(), ZoneOffset.UTC),
+					within(1, ChronoUnit.MILLIS));
+		} finally {
+			TimeZone.setDefault(original);
+		}
+	}
+
+	private static ExecutionEvent event(String code) {
+		return ExecutionEvent.compileError(ExecutionEvent.SOURCE_COMPILE, "ip:127.0.0.1", code);
+	}
+
+	private int rows() {
+		return jdbc.queryForObject("SELECT COUNT(*) FROM execution_events", Integer.class);
+	}
+
+	private double queued() {
+		return registry.get("playground.execution.events.queued").gauge().value();
+	}
+}
@@ -0,0 +1,65 @@
+package com.JavaPlayground.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Two embedded H2 databases that each know their own name
+class ReadWriteRoutingDataSourceTest {
+
+	private final DataSource primary = namedDatabase("primary");
+	private final DataSource replica = namedDatabase("replica");
+	private final AtomicInteger fallbacks = new AtomicInteger();
+
+	@Test
+	void readOnlyTransactionsUseTheReplica() {
+		DataSource routing = routing(replica);
+
+		assertThat(whoAnswers(routing, true)).isEqualTo("replica");
+		assertThat(whoAnswers(routing, false)).isEqualTo("primary");
+	}
+
+	@Test
+	void deadReplicaFallsBackToPrimary() {
+		JdbcDataSource dead = new JdbcDataSource();
+		dead.setURL("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+		DataSource routing = routing(dead);
+
+		assertThat(whoAnswers(routing, true)).isEqualTo("primary");
+		assertThat(fallbacks).hasValue(1);
+
+		// Cool-down: the next read goes straight to the primary without trying the replica
+		assertThat(whoAnswers(routing, true)).isEqualTo("primary");
+		assertThat(fallbacks).hasValue(1);
+	}
+
+	private DataSource routing(DataSource replicaPool) {
+		return new LazyConnectionDataSourceProxy(
+				new ReadWriteRoutingDataSource(primary, replicaPool, 60_000, fallbacks::incrementAndGet));
+	}
+
+	private String whoAnswers(DataSource dataSource, boolean readOnly) {
+		TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		tx.setReadOnly(readOnly);
+		return tx.execute(status -> new JdbcTemplate(dataSource).queryForObject("SELECT name FROM whoami", String.class));
+	}
+
+	private static DataSource namedDatabase(String name) {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("CREATE TABLE IF NOT EXISTS whoami (name VARCHAR(20))");
+		jdbc.execute("DELETE FROM whoami");
+		jdbc.execute("INSERT INTO whoami VALUES ('" + name + "')");
+		return dataSource;
+	}
+}
@@ -0,0 +1,47 @@
+package com.JavaPlayground.config;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SecurityConfigTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void metricsNeedALogin() throws Exception {
+		mockMvc.perform(get("/actuator/metrics/jvm.memory.used"))
+				.andExpect(status().is3xxRedirection());
+	}
+
+	@Test
+	void healthIsOpen() throws Exception {
+		mockMvc.perform(get("/actuator/health"))
+				.andExpect(status().isOk());
+	}
+
+	@Nested
+	@ActiveProfiles("loadtest") // Added to "test"
+	class UnderTheLoadtestProfile {
+
+		@Autowired
+		private MockMvc mockMvc;
+
+		@Test
+		void metricsAreOpenToTheLoadGenerator() throws Exception {
+			mockMvc.perform(get("/actuator/metrics/jvm.memory.used"))
+					.andExpect(status().isOk());
+		}
+	}
+}
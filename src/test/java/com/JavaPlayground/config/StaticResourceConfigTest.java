@@ -0,0 +1,107 @@
+package com.JavaPlayground.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.InputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.DigestUtils;
+
+// static/js/fixture.js and its .gz/.br come from src/test/resources, so this doesn't depend
+// on the build's antrun step (or on the brotli CLI being installed)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StaticResourceConfigTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void fingerprintedUrlServesTheAssetAsImmutable() throws Exception {
+		mockMvc.perform(get(fingerprinted()))
+				.andExpect(status().isOk())
+				.andExpect(content().bytes(bytes("fixture.js")))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"));
+	}
+
+	@Test
+	void wrongFingerprintIsNotFound() throws Exception {
+		mockMvc.perform(get("/js/fixture-00000000000000000000000000000000.js"))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void plainAssetUrlRevalidates() throws Exception {
+		mockMvc.perform(get("/js/fixture.js"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+	}
+
+	@Test
+	void precompressedVariantFollowsAcceptEncoding() throws Exception {
+		mockMvc.perform(get(fingerprinted()).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "br"))
+				.andExpect(header().string(HttpHeaders.VARY, "Accept-Encoding"))
+				.andExpect(content().bytes(bytes("fixture.js.br")));
+
+		mockMvc.perform(get(fingerprinted()).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andExpect(content().bytes(bytes("fixture.js.gz")));
+
+		mockMvc.perform(get(fingerprinted()))
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+				.andExpect(content().bytes(bytes("fixture.js")));
+	}
+
+	@Test
+	void revalidatedAssetWithMatchingEtagIsNotModifiedWhateverTheEncoding() throws Exception {
+		String etag = mockMvc.perform(get("/js/fixture.js"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(etag).isEqualTo("W/\"" + DigestUtils.md5DigestAsHex(bytes("fixture.js")) + "\"");
+
+		for (String encoding : new String[] { "identity", "gzip", "br" }) {
+			mockMvc.perform(get("/js/fixture.js").header(HttpHeaders.ACCEPT_ENCODING, encoding))
+					.andExpect(header().string(HttpHeaders.ETAG, etag)); // Weak: one ETag for all encodings
+
+			mockMvc.perform(get("/js/fixture.js").header(HttpHeaders.ACCEPT_ENCODING, encoding)
+					.header(HttpHeaders.IF_NONE_MATCH, etag))
+					.andExpect(status().isNotModified())
+					.andExpect(content().bytes(new byte[0]));
+		}
+	}
+
+	@Test
+	void htmlPageRevalidatesAndAnswers304ToAMatchingEtag() throws Exception {
+		String etag = mockMvc.perform(get("/login.html"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(etag).isNotBlank();
+
+		mockMvc.perform(get("/login.html").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+	}
+
+	// Same scheme as the build and VersionResourceResolver: name-<md5 of the content>.ext
+	private static String fingerprinted() throws Exception {
+		return "/js/fixture-" + DigestUtils.md5DigestAsHex(bytes("fixture.js")) + ".js";
+	}
+
+	private static byte[] bytes(String name) throws Exception {
+		try (InputStream in = new ClassPathResource("static/js/" + name).getInputStream()) {
+			return in.readAllBytes();
+		}
+	}
+}
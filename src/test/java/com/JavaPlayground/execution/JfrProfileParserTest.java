@@ -0,0 +1,86 @@
+package com.JavaPlayground.execution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.JavaPlayground.model.ProfileReport;
+
+// Records real Flight Recorder files with the same flags the backend uses, then parses them
+class JfrProfileParserTest {
+
+	// Keeps 16 MB alive and spins for half a second, all well inside a 256 MB young generation
+	private static final String NO_GC = "import java.util.*;\n"
+			+ "public class Main {\n"
+			+ "    static volatile long sink;\n"
+			+ "    public static void main(String[] args) {\n"
+			+ "        List<byte[]> kept = new ArrayList<>();\n"
+			+ "        for (int i = 0; i < 16; i++) kept.add(new byte[1 << 20]);\n"
+			+ "        spin();\n"
+			+ "        System.out.println(kept.size());\n"
+			+ "    }\n"
+			+ "    static void spin() {\n"
+			+ "        long end = System.nanoTime() + 500_000_000L;\n"
+			+ "        while (System.nanoTime() < end) sink += sink * 31 + 7;\n"
+			+ "    }\n"
+			+ "}\n";
+
+	private static final String WITH_GC = "public class Main {\n"
+			+ "    public static void main(String[] args) {\n"
+			+ "        byte[][] kept = new byte[8][];\n"
+			+ "        for (int i = 0; i < kept.length; i++) kept[i] = new byte[1 << 20];\n"
+			+ "        System.gc();\n"
+			+ "        System.out.println(kept.length);\n"
+			+ "    }\n"
+			+ "}\n";
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void runWithoutGcStillReportsHeapFromAllocationSamples() throws Exception {
+		ProfileReport report = JfrProfileParser.parse(record(NO_GC));
+
+		assertThat(report.getGcCount()).isZero();
+		assertThat(report.isPeakHeapEstimated()).isTrue();
+		assertThat(report.getPeakHeapBytes()).isGreaterThanOrEqualTo(4L << 20);
+		// JFR reports JVM type names: "[B" is byte[]
+		assertThat(report.getAllocations()).extracting(ProfileReport.Allocation::getType).contains("[B");
+		assertThat(report.getHotMethods()).extracting(ProfileReport.HotMethod::getMethod).contains("Main.spin");
+	}
+
+	@Test
+	void runWithGcReportsMeasuredHeap() throws Exception {
+		ProfileReport report = JfrProfileParser.parse(record(WITH_GC));
+
+		assertThat(report.getGcCount()).isPositive();
+		assertThat(report.isPeakHeapEstimated()).isFalse();
+		assertThat(report.getPeakHeapBytes()).isGreaterThanOrEqualTo(8L << 20);
+	}
+
+	private Path record(String code) throws Exception {
+		Path source = dir.resolve("Main.java");
+		Files.writeString(source, code);
+		assertThat(ToolProvider.getSystemJavaCompiler().run(null, null, null, source.toString())).isZero();
+
+		Path recording = dir.resolve("profile.jfr");
+		List<String> command = new ArrayList<>();
+		command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+		command.addAll(JfrProfileParser.jvmOptions(recording));
+		command.addAll(List.of("-XX:+UseSerialGC", "-Xms512m", "-Xmn256m", "-cp", dir.toString(), "Main"));
+		Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+		String output = new String(process.getInputStream().readAllBytes());
+		assertThat(process.waitFor(30, TimeUnit.SECONDS)).isTrue();
+		assertThat(process.exitValue()).as(output).isZero();
+		return recording;
+	}
+}
@@ -0,0 +1,178 @@
+package com.JavaPlayground.execution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+// Runs real child JVMs; each limit is set low and the others far out of reach
+class LocalExecutionBackendTest {
+
+	private static final long FAR = 60;
+
+	private final LocalExecutionBackend backend = new LocalExecutionBackend();
+	private final List<Process> spinners = new ArrayList<>();
+
+	@AfterEach
+	void shutdown() {
+		spinners.forEach(Process::destroyForcibly);
+		backend.shutdown();
+	}
+
+	@Test
+	void busyLoopIsStoppedByTheCpuLimit() throws Exception {
+		ExecutionOutcome outcome = run("while (true) { }", ExecutionLimits.ofSeconds(1, FAR, FAR), true);
+
+		assertThat(outcome.getLimitExceeded()).isEqualTo(ExecutionLimit.CPU);
+		assertThat(outcome.getCpuMillis()).isGreaterThan(1000);
+		assertThat(outcome.getElapsedMillis()).isLessThan(TimeUnit.SECONDS.toMillis(10));
+	}
+
+	@Test
+	void programThatKeepsPrintingIsStoppedByTheWallClockLimit() throws Exception {
+		// Output counts as activity, so only the wall clock can stop this one
+		ExecutionOutcome outcome = run("while (true) { System.out.println(\".\"); Thread.sleep(50); }",
+				ExecutionLimits.ofSeconds(FAR, 2, FAR), true);
+
+		assertThat(outcome.getLimitExceeded()).isEqualTo(ExecutionLimit.WALL_CLOCK);
+		assertThat(outcome.getElapsedMillis()).isBetween(2000L, TimeUnit.SECONDS.toMillis(10));
+	}
+
+	@Test
+	void programWaitingForInputIsStoppedByTheIdleLimit() throws Exception {
+		ExecutionOutcome outcome = run("new java.util.Scanner(System.in).nextLine();",
+				ExecutionLimits.ofSeconds(FAR, FAR, 1), false);
+
+		assertThat(outcome.getLimitExceeded()).isEqualTo(ExecutionLimit.IDLE);
+		assertThat(outcome.getElapsedMillis()).isLessThan(TimeUnit.SECONDS.toMillis(10));
+	}
+
+	@Test
+	void starvedProgramThatIsStillComputingIsNotIdle() throws Exception {
+		assumeTrue(Files.isDirectory(Path.of("/proc/self/task")) && onPath("renice") && onPath("taskset"),
+				"needs Linux /proc, renice and taskset");
+		// Once it says "ready", the program is niced to 19 and shares one CPU with two busy loops at
+		// nice 0: it gets under 1% of that CPU, far below the 10 ms per 100 ms the CPU delta needs
+		long[] cpuAtReady = new long[1];
+		ExecutionOutcome outcome = run("System.out.println(\"ready\");\n"
+				+ "long end = System.nanoTime() + 3_000_000_000L, sink = 0;\n"
+				+ "while (System.nanoTime() < end) sink += sink * 31 + 7;\n"
+				+ "System.out.println(\"done \" + sink);",
+				ExecutionLimits.ofSeconds(FAR, FAR, 1), true, chunk -> {
+					if (chunk.contains("ready")) {
+						cpuAtReady[0] = starve();
+					} else if (chunk.contains("done")) {
+						spinners.forEach(Process::destroyForcibly); // Let it exit quickly
+					}
+				});
+
+		assertThat(outcome.getLimitExceeded()).isNull();
+		assertThat(outcome.getExitCode()).isZero();
+		// It really was starved: well under 10% of a CPU over the 3 s loop
+		assertThat(outcome.getCpuMillis() - cpuAtReady[0]).isLessThan(300);
+	}
+
+	@Test
+	void quickRunIsChargedItsMeasuredCpuTime() throws Exception {
+		ExecutionOutcome outcome = run("System.out.println(\"hi\");", ExecutionLimits.ofSeconds(FAR, FAR, FAR), true);
+
+		assertThat(outcome.getLimitExceeded()).isNull();
+		assertThat(outcome.getExitCode()).isZero();
+		assertThat(outcome.getCpuMillis()).isPositive(); // Sampled at exit, not the wall-time fallback
+		assertThat(outcome.getChargeableMillis()).isEqualTo(outcome.getCpuMillis());
+	}
+
+	private ExecutionOutcome run(String body, ExecutionLimits limits, boolean closeInput) throws Exception {
+		return run(body, limits, closeInput, chunk -> {
+		});
+	}
+
+	private ExecutionOutcome run(String body, ExecutionLimits limits, boolean closeInput, Consumer<String> output)
+			throws Exception {
+		String code = "public class Main {\n"
+				+ "    public static void main(String[] args) throws Exception {\n"
+				+ "        " + body + "\n"
+				+ "    }\n"
+				+ "}\n";
+		CompletableFuture<ExecutionOutcome> result = new CompletableFuture<>();
+		ExecutionHandle handle = backend.submit(new ExecutionJob(code, limits), new ExecutionListener() {
+			@Override
+			public void onOutput(String chunk) {
+				output.accept(chunk);
+			}
+
+			@Override
+			public void onCompileError(String diagnostics) {
+				result.completeExceptionally(new AssertionError(diagnostics));
+			}
+
+			@Override
+			public void onExit(ExecutionOutcome outcome) {
+				result.complete(outcome);
+			}
+
+			@Override
+			public void onFailure(String message) {
+				result.completeExceptionally(new AssertionError(message));
+			}
+		});
+		if (closeInput) {
+			handle.closeInput();
+		}
+		try {
+			return result.get(30, TimeUnit.SECONDS);
+		} finally {
+			handle.cancel();
+		}
+	}
+
+	// Nices every thread of the running program and pins it next to two busy loops; returns its CPU so far
+	private long starve() {
+		try {
+			ProcessHandle program = ProcessHandle.current().descendants()
+					.filter(h -> h.info().commandLine().orElse("").contains("java-exec-"))
+					.findFirst().orElseThrow();
+			String cpu = firstAllowedCpu();
+			try (Stream<Path> threads = Files.list(Path.of("/proc", Long.toString(program.pid()), "task"))) {
+				for (Path thread : threads.toList()) {
+					exec("renice", "-n", "19", "-p", thread.getFileName().toString());
+				}
+			}
+			exec("taskset", "-a", "-p", "-c", cpu, Long.toString(program.pid()));
+			for (int i = 0; i < 2; i++) {
+				spinners.add(new ProcessBuilder("taskset", "-c", cpu, "sh", "-c", "while :; do :; done").start());
+			}
+			return program.info().totalCpuDuration().orElseThrow().toMillis();
+		} catch (IOException | InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String firstAllowedCpu() throws IOException {
+		return Files.readAllLines(Path.of("/proc/self/status")).stream()
+				.filter(line -> line.startsWith("Cpus_allowed_list:"))
+				.map(line -> line.substring(line.indexOf(':') + 1).trim().split("[,-]")[0])
+				.findFirst().orElse("0");
+	}
+
+	private static void exec(String... command) throws IOException, InterruptedException {
+		Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+		process.getInputStream().readAllBytes();
+		assertThat(process.waitFor()).as(String.join(" ", command)).isZero();
+	}
+
+	private static boolean onPath(String tool) {
+		return Stream.of(System.getenv("PATH").split(":")).anyMatch(dir -> Files.isExecutable(Path.of(dir, tool)));
+	}
+}
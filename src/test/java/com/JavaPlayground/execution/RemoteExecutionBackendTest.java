@@ -0,0 +1,167 @@
+package com.JavaPlayground.execution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class RemoteExecutionBackendTest {
+
+	private static final ExecutionLimits LIMITS = ExecutionLimits.ofSeconds(5, 10, 10);
+
+	private final InMemoryExecutionBroker broker = new InMemoryExecutionBroker();
+	private final LocalExecutionBackend local = mock(LocalExecutionBackend.class);
+	private final BlockingQueue<ExecutionListener> started = new LinkedBlockingQueue<>();
+	private final FakeHandle program = new FakeHandle();
+	private final List<RemoteExecutionBackend> backends = new ArrayList<>();
+	private ExecutionWorker worker;
+
+	@AfterEach
+	void stopWorker() {
+		if (worker != null) {
+			worker.stop();
+		}
+		backends.forEach(RemoteExecutionBackend::shutdown);
+	}
+
+	@Test
+	void outputAndExitTravelBackThroughTheBroker() throws Exception {
+		startWorker();
+		RecordingListener caller = new RecordingListener();
+
+		backend(10_000).submit(new ExecutionJob("code", LIMITS), caller);
+		ExecutionListener run = started.poll(5, TimeUnit.SECONDS);
+		run.onOutput("Hello");
+		run.onExit(new ExecutionOutcome(0, 12, 10, null, null));
+
+		assertThat(caller.next()).isEqualTo("output:Hello");
+		assertThat(caller.next()).isEqualTo("exit:0");
+	}
+
+	@Test
+	void workerTakesTheNextJobAfterOneCompletes() throws Exception {
+		startWorker();
+		RemoteExecutionBackend backend = backend(10_000);
+
+		backend.submit(new ExecutionJob("first", LIMITS), new RecordingListener());
+		started.poll(5, TimeUnit.SECONDS).onCompileError("error: ';' expected");
+		RecordingListener second = new RecordingListener();
+		backend.submit(new ExecutionJob("second", LIMITS), second);
+		started.poll(5, TimeUnit.SECONDS).onFailure("No public class found in code");
+
+		assertThat(second.next()).isEqualTo("failure:No public class found in code");
+	}
+
+	@Test
+	void inputAndCancelReachTheRunningProgram() throws Exception {
+		startWorker();
+		RecordingListener caller = new RecordingListener();
+
+		ExecutionHandle handle = backend(10_000).submit(new ExecutionJob("code", LIMITS), caller);
+		ExecutionListener run = started.poll(5, TimeUnit.SECONDS);
+		handle.sendInput("42\n");
+		handle.closeInput();
+		handle.cancel();
+		program.cancelled.poll(5, TimeUnit.SECONDS);
+		run.onExit(new ExecutionOutcome(137, 50, 40, null, null));
+
+		assertThat(program.received).containsExactly("input:42\n", "close", "cancel");
+		assertThat(caller.next()).isEqualTo("exit:137");
+	}
+
+	@Test
+	void jobNoWorkerPicksUpFailsAfterTheQueueTimeout() throws Exception {
+		RecordingListener caller = new RecordingListener();
+
+		backend(200).submit(new ExecutionJob("code", LIMITS), caller);
+
+		assertThat(caller.next()).startsWith("failure:No execution worker is available");
+		assertThat(broker.pollJob(0, TimeUnit.MILLISECONDS)).isNull();
+	}
+
+	@Test
+	void cancellingAQueuedJobTakesItBack() throws Exception {
+		RecordingListener caller = new RecordingListener();
+
+		backend(10_000).submit(new ExecutionJob("code", LIMITS), caller).cancel();
+
+		assertThat(caller.next()).isEqualTo("failure:Execution cancelled");
+		assertThat(broker.pollJob(0, TimeUnit.MILLISECONDS)).isNull();
+	}
+
+	private RemoteExecutionBackend backend(long queueTimeoutMillis) {
+		RemoteExecutionBackend backend = new RemoteExecutionBackend(broker, queueTimeoutMillis);
+		backends.add(backend);
+		return backend;
+	}
+
+	private void startWorker() {
+		when(local.submit(any(), any())).thenAnswer(invocation -> {
+			started.add(invocation.getArgument(1));
+			return program;
+		});
+		worker = new ExecutionWorker(broker, local, true, 1);
+		worker.start();
+	}
+
+	private static class RecordingListener implements ExecutionListener {
+
+		private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+		String next() throws InterruptedException {
+			return events.poll(5, TimeUnit.SECONDS);
+		}
+
+		@Override
+		public void onOutput(String chunk) {
+			events.add("output:" + chunk);
+		}
+
+		@Override
+		public void onCompileError(String diagnostics) {
+			events.add("compile-error:" + diagnostics);
+		}
+
+		@Override
+		public void onExit(ExecutionOutcome outcome) {
+			events.add("exit:" + outcome.getExitCode());
+		}
+
+		@Override
+		public void onFailure(String message) {
+			events.add("failure:" + message);
+		}
+	}
+
+	private static class FakeHandle implements ExecutionHandle {
+
+		private final List<String> received = new CopyOnWriteArrayList<>();
+		private final BlockingQueue<Boolean> cancelled = new LinkedBlockingQueue<>();
+
+		@Override
+		public void sendInput(String data) {
+			received.add("input:" + data);
+		}
+
+		@Override
+		public void closeInput() {
+			received.add("close");
+		}
+
+		@Override
+		public void cancel() {
+			received.add("cancel");
+			cancelled.add(true);
+		}
+	}
+}
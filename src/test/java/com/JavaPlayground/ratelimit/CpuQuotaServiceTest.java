@@ -0,0 +1,93 @@
+package com.JavaPlayground.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import org.junit.jupiter.api.Test;
+
+class CpuQuotaServiceTest {
+
+	@Test
+	void chargesRunTimeUntilTheDailyBudgetIsUsedUp() {
+		CpuQuotaService quota = new CpuQuotaService(10, Clock.systemUTC());
+
+		quota.record("user:a", 4000);
+		assertThat(quota.remainingMillis("user:a")).isEqualTo(6000);
+		assertThat(quota.hasRemaining("user:a")).isTrue();
+
+		quota.record("user:a", 6000);
+		assertThat(quota.hasRemaining("user:a")).isFalse();
+		quota.record("user:a", 5000); // A run that was already going when the budget ran out
+		assertThat(quota.remainingMillis("user:a")).isZero();
+	}
+
+	@Test
+	void keysHaveSeparateBudgets() {
+		CpuQuotaService quota = new CpuQuotaService(10, Clock.systemUTC());
+
+		quota.record("user:google:1", 10_000);
+
+		assertThat(quota.hasRemaining("user:google:1")).isFalse();
+		assertThat(quota.remainingMillis("user:github:1")).isEqualTo(10_000);
+	}
+
+	@Test
+	void anonymousAndEmptyChargesAreIgnored() {
+		CpuQuotaService quota = new CpuQuotaService(10, Clock.systemUTC());
+
+		quota.record(null, 5000);
+		quota.record("ip:1.2.3.4", 0);
+		quota.record("ip:1.2.3.4", -5);
+
+		assertThat(quota.remainingMillis("ip:1.2.3.4")).isEqualTo(10_000);
+	}
+
+	@Test
+	void budgetResetsAtMidnightUtc() {
+		// The clock's own zone doesn't matter: the day is always the UTC one
+		MutableClock clock = new MutableClock(Instant.parse("2026-03-01T23:59:00Z"), ZoneId.of("America/Los_Angeles"));
+		CpuQuotaService quota = new CpuQuotaService(10, clock);
+		quota.record("user:a", 10_000);
+		assertThat(quota.hasRemaining("user:a")).isFalse();
+
+		clock.advance(Duration.ofSeconds(59));
+		assertThat(quota.hasRemaining("user:a")).isFalse();
+
+		clock.advance(Duration.ofSeconds(2));
+		assertThat(quota.remainingMillis("user:a")).isEqualTo(10_000);
+	}
+
+	private static final class MutableClock extends Clock {
+
+		private final ZoneId zone;
+		private Instant now;
+
+		MutableClock(Instant now, ZoneId zone) {
+			this.now = now;
+			this.zone = zone;
+		}
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return zone;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+	}
+}
@@ -0,0 +1,150 @@
+package com.JavaPlayground.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+
+class RateLimitFilterTest {
+
+	private final RateLimiter rateLimiter = new RateLimiter(new MockEnvironment()
+			.withProperty("ratelimit.compile.capacity", "2")
+			.withProperty("ratelimit.compile.per-minute", "1")
+			.withProperty("ratelimit.diagnostics.capacity", "1")
+			.withProperty("ratelimit.run.capacity", "1"));
+	private final CpuQuotaService cpuQuota = new CpuQuotaService(10);
+	private final RateLimitFilter filter = new RateLimitFilter(rateLimiter, cpuQuota);
+
+	@AfterEach
+	void shutdown() {
+		rateLimiter.shutdown();
+	}
+
+	@Test
+	void requestsWithinTheLimitPassWithHeaders() throws Exception {
+		MockHttpServletRequest request = post("/api/compile", "10.0.0.1");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+
+		filter.doFilter(request, response, chain);
+
+		assertThat(chain.getRequest()).isSameAs(request);
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getHeader("X-RateLimit-Limit")).isEqualTo("2");
+		assertThat(response.getHeader("X-RateLimit-Remaining")).isEqualTo("1");
+		assertThat(request.getAttribute(RateLimitKeys.ATTRIBUTE)).isEqualTo("ip:10.0.0.1");
+	}
+
+	@Test
+	void overTheLimitGets429WithRetryAfter() throws Exception {
+		filter.doFilter(post("/api/compile", "10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+		filter.doFilter(post("/api/benchmark", "10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(post("/api/compile", "10.0.0.1"), response, chain);
+
+		assertThat(chain.getRequest()).isNull();
+		assertThat(response.getStatus()).isEqualTo(429);
+		assertThat(response.getHeader("X-RateLimit-Remaining")).isEqualTo("0");
+		assertThat(response.getHeader("Retry-After")).isEqualTo("60"); // One token a minute
+		assertThat(response.getContentAsString()).contains("\"success\":false", "Too many requests");
+
+		// Another client has its own bucket
+		MockHttpServletResponse other = new MockHttpServletResponse();
+		filter.doFilter(post("/api/compile", "10.0.0.2"), other, new MockFilterChain());
+		assertThat(other.getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void usedUpCpuQuotaRejectsCompilesButNotDiagnostics() throws Exception {
+		cpuQuota.record("ip:10.0.0.1", 10_000);
+
+		MockHttpServletResponse compile = new MockHttpServletResponse();
+		filter.doFilter(post("/api/compile", "10.0.0.1"), compile, new MockFilterChain());
+		assertThat(compile.getStatus()).isEqualTo(429);
+		assertThat(compile.getContentAsString()).contains("quota");
+		assertThat(Long.parseLong(compile.getHeader("Retry-After")))
+				.isCloseTo(RateLimitFilter.secondsUntilMidnightUtc(), within(2L));
+
+		MockHttpServletResponse diagnostics = new MockHttpServletResponse();
+		filter.doFilter(post("/api/diagnostics", "10.0.0.1"), diagnostics, new MockFilterChain());
+		assertThat(diagnostics.getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void otherRequestsAreNotCounted() throws Exception {
+		for (int i = 0; i < 5; i++) {
+			MockHttpServletRequest get = new MockHttpServletRequest("GET", "/api/compile");
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			filter.doFilter(get, response, new MockFilterChain());
+			assertThat(response.getHeader("X-RateLimit-Limit")).isNull();
+		}
+		assertThat(rateLimiter.peek(RateLimitCategory.COMPILE, "ip:127.0.0.1").getRemaining()).isEqualTo(2);
+	}
+
+	@Test
+	void sameUserIdFromDifferentProvidersGetsSeparateBuckets() throws Exception {
+		MockHttpServletRequest google = post("/api/diagnostics", "10.0.0.1");
+		google.setUserPrincipal(oauthUser("google", "12345"));
+		MockHttpServletRequest github = post("/api/diagnostics", "10.0.0.1");
+		github.setUserPrincipal(oauthUser("github", "12345"));
+
+		MockHttpServletResponse first = new MockHttpServletResponse();
+		MockHttpServletResponse second = new MockHttpServletResponse();
+		filter.doFilter(google, first, new MockFilterChain());
+		filter.doFilter(github, second, new MockFilterChain());
+
+		assertThat(google.getAttribute(RateLimitKeys.ATTRIBUTE)).isEqualTo("user:google:12345");
+		assertThat(github.getAttribute(RateLimitKeys.ATTRIBUTE)).isEqualTo("user:github:12345");
+		assertThat(first.getStatus()).isEqualTo(200);
+		assertThat(second.getStatus()).isEqualTo(200); // Capacity 1: a shared bucket would refuse this
+	}
+
+	@Test
+	void handshakeIsNeverRefusedButReportsTheRunBudget() throws Exception {
+		RateLimitHandshakeInterceptor interceptor = new RateLimitHandshakeInterceptor(rateLimiter);
+		rateLimiter.tryConsume(RateLimitCategory.RUN, "ip:10.0.0.1"); // Budget used up
+
+		MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/terminal");
+		servletRequest.setRemoteAddr("10.0.0.1");
+		servletRequest.setRemoteHost("10.0.0.1"); // What the interceptor reads, via getRemoteAddress()
+		ServletServerHttpResponse response = new ServletServerHttpResponse(new MockHttpServletResponse());
+		Map<String, Object> attributes = new HashMap<>();
+
+		boolean proceed = interceptor.beforeHandshake(new ServletServerHttpRequest(servletRequest), response, null,
+				attributes);
+
+		assertThat(proceed).isTrue(); // A RESUME must still get through
+		assertThat(attributes).containsEntry(RateLimitKeys.ATTRIBUTE, "ip:10.0.0.1");
+		assertThat(response.getHeaders().getFirst("X-RateLimit-Limit")).isEqualTo("1");
+		assertThat(response.getHeaders().getFirst("X-RateLimit-Remaining")).isEqualTo("0");
+	}
+
+	private static MockHttpServletRequest post(String path, String remoteAddr) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+		request.setRemoteAddr(remoteAddr);
+		return request;
+	}
+
+	private static Principal oauthUser(String provider, String id) {
+		DefaultOAuth2User user = new DefaultOAuth2User(AuthorityUtils.createAuthorityList("ROLE_USER"),
+				Map.of("id", id), "id");
+		return new OAuth2AuthenticationToken(user, List.of(), provider);
+	}
+}
@@ -0,0 +1,111 @@
+package com.JavaPlayground.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+	private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+	@Test
+	void fullBucketAllowsABurstOfCapacityThenRefuses() {
+		TokenBucket bucket = new TokenBucket(3, 60, now::get);
+
+		assertThat(bucket.tryConsume().getRemaining()).isEqualTo(2);
+		assertThat(bucket.tryConsume().getRemaining()).isEqualTo(1);
+		assertThat(bucket.tryConsume().getRemaining()).isZero();
+
+		TokenBucket.Probe refused = bucket.tryConsume();
+		assertThat(refused.isAllowed()).isFalse();
+		assertThat(refused.getSecondsToWait()).isEqualTo(1); // 60 per minute: one token a second
+	}
+
+	@Test
+	void refillsAtTheConfiguredRate() {
+		TokenBucket bucket = new TokenBucket(2, 2, now::get); // One token every 30 s
+		bucket.tryConsume();
+		bucket.tryConsume();
+
+		advanceSeconds(29);
+		TokenBucket.Probe early = bucket.tryConsume();
+		assertThat(early.isAllowed()).isFalse();
+		assertThat(early.getSecondsToWait()).isEqualTo(1);
+
+		advanceSeconds(1);
+		assertThat(bucket.tryConsume().isAllowed()).isTrue();
+		assertThat(bucket.tryConsume().isAllowed()).isFalse();
+	}
+
+	@Test
+	void neverRefillsPastCapacity() {
+		TokenBucket bucket = new TokenBucket(2, 60, now::get);
+		bucket.tryConsume();
+
+		advanceSeconds(3600);
+
+		assertThat(bucket.isFull()).isTrue();
+		assertThat(bucket.tryConsume().getRemaining()).isEqualTo(1);
+		assertThat(bucket.tryConsume().isAllowed()).isTrue();
+		assertThat(bucket.tryConsume().isAllowed()).isFalse();
+	}
+
+	@Test
+	void peekDoesNotTakeATokenAndReportsTimeUntilFull() {
+		TokenBucket bucket = new TokenBucket(2, 2, now::get);
+		bucket.tryConsume();
+
+		TokenBucket.Probe probe = bucket.peek();
+
+		assertThat(probe.isAllowed()).isTrue();
+		assertThat(probe.getRemaining()).isEqualTo(1);
+		assertThat(probe.getSecondsToWait()).isEqualTo(30);
+		assertThat(bucket.peek().getRemaining()).isEqualTo(1);
+	}
+
+	@Test
+	void concurrentConsumersNeverTakeMoreThanCapacity() throws Exception {
+		TokenBucket bucket = new TokenBucket(1000, 0, System::nanoTime); // No refill: capacity is all there is
+		int threads = 8;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<Integer>> granted = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				granted.add(pool.submit(() -> {
+					start.await();
+					int allowed = 0;
+					for (int i = 0; i < 1000; i++) {
+						if (bucket.tryConsume().isAllowed()) {
+							allowed++;
+						}
+					}
+					return allowed;
+				}));
+			}
+			start.countDown();
+
+			int total = 0;
+			for (Future<Integer> f : granted) {
+				total += f.get(30, TimeUnit.SECONDS);
+			}
+			assertThat(total).isEqualTo(1000);
+			assertThat(bucket.peek().getRemaining()).isZero();
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private void advanceSeconds(long seconds) {
+		now.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+	}
+}
@@ -0,0 +1,152 @@
+package com.JavaPlayground.repl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.JavaPlayground.ratelimit.CpuQuotaService;
+
+// Starts real JShells, each with its own remote JVM
+class ReplSessionManagerTest {
+
+	private final CpuQuotaService cpuQuota = new CpuQuotaService(600);
+	private ReplSessionManager manager = new ReplSessionManager(cpuQuota, 2, 64, 10, 10);
+
+	@AfterEach
+	void shutdown() {
+		manager.shutdown();
+	}
+
+	@Test
+	void rejectedAdmissionStartsNothingAndIsAskedAgainNextTime() throws Exception {
+		BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+		WebSocketSession ws = socket("ws-1", sent);
+		AtomicInteger asked = new AtomicInteger();
+
+		manager.evaluate(ws, "1 + 1", null, () -> asked.incrementAndGet() == 1 ? "Too many runs." : null);
+		assertThat(await(sent, "ERROR:")).isEqualTo("ERROR:Too many runs.");
+		assertThat(manager.sendInput(ws, "x")).isFalse();
+
+		manager.evaluate(ws, "1 + 1", null, () -> asked.incrementAndGet() == 1 ? "Too many runs." : null);
+		await(sent, "REPL_DONE:");
+		assertThat(asked).hasValue(2);
+		assertThat(manager.sendInput(ws, "x")).isTrue();
+	}
+
+	@Test
+	void fullNodeRefusesWithoutChargingTheCallerARun() throws Exception {
+		manager.shutdown();
+		manager = new ReplSessionManager(cpuQuota, 1, 64, 10, 10);
+		BlockingQueue<String> first = new LinkedBlockingQueue<>();
+		WebSocketSession ws1 = socket("ws-1", first);
+		manager.evaluate(ws1, "1", null, () -> null);
+		await(first, "REPL_DONE:");
+
+		BlockingQueue<String> second = new LinkedBlockingQueue<>();
+		WebSocketSession ws2 = socket("ws-2", second);
+		AtomicInteger asked = new AtomicInteger();
+		manager.evaluate(ws2, "1", null, counting(asked));
+		assertThat(await(second, "ERROR:")).contains("All REPL slots are busy");
+		assertThat(asked).hasValue(0); // The run token is only taken once a slot is free
+
+		manager.close(ws1);
+		manager.evaluate(ws2, "1", null, counting(asked));
+		await(second, "REPL_DONE:");
+		assertThat(asked).hasValue(1);
+	}
+
+	@Test
+	void framesArrivingTogetherShareOneSession() throws Exception {
+		BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+		WebSocketSession ws = socket("ws-1", sent);
+		AtomicInteger asked = new AtomicInteger();
+
+		manager.evaluate(ws, "int x = 41;", null, counting(asked));
+		manager.evaluate(ws, "x + 1", null, counting(asked));
+		await(sent, "REPL_DONE:");
+		await(sent, "REPL_DONE:");
+
+		assertThat(asked).hasValue(1);
+	}
+
+	@Test
+	void idleSessionIsEvicted() throws Exception {
+		manager.shutdown();
+		manager = new ReplSessionManager(cpuQuota, 2, 64, 0, 10); // Idle as soon as an evaluation ends
+		BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+		WebSocketSession ws = socket("ws-1", sent);
+		AtomicInteger asked = new AtomicInteger();
+		manager.evaluate(ws, "int x = 41;", null, counting(asked));
+		await(sent, "REPL_DONE:");
+		Thread.sleep(5);
+
+		manager.sweep();
+
+		assertThat(manager.sendInput(ws, "x")).isFalse();
+		manager.evaluate(ws, "x + 1", null, counting(asked));
+		assertThat(await(sent, "ERROR:")).contains("cannot find symbol"); // A fresh JShell
+		assertThat(asked).hasValue(2);
+	}
+
+	@Test
+	void threadLeftRunningIsChargedAndStoppedOnceTheQuotaIsGone() throws Exception {
+		BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+		WebSocketSession ws = socket("ws-1", sent);
+		manager.evaluate(ws, "new Thread(() -> { while (true); }).start();", "user:a", () -> null);
+		await(sent, "REPL_DONE:");
+		long afterEvaluation = cpuQuota.remainingMillis("user:a");
+		assertThat(afterEvaluation).isLessThan(600_000); // Starting the remote JVM took CPU too
+
+		Thread.sleep(1000);
+		manager.sweep();
+		assertThat(cpuQuota.remainingMillis("user:a")).isLessThan(afterEvaluation - 300);
+		assertThat(manager.sendInput(ws, "x")).isTrue();
+
+		cpuQuota.record("user:a", cpuQuota.remainingMillis("user:a")); // Used up elsewhere, e.g. by a RUN:
+		manager.sweep();
+		assertThat(await(sent, "ERROR:")).contains("quota used up");
+		assertThat(manager.sendInput(ws, "x")).isFalse();
+	}
+
+	private static Supplier<String> counting(AtomicInteger asked) {
+		return () -> {
+			asked.incrementAndGet();
+			return null;
+		};
+	}
+
+	// Next message with the prefix; OUTPUT: chunks and the like in between are skipped
+	private static String await(BlockingQueue<String> sent, String prefix) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+		while (System.nanoTime() < deadline) {
+			String message = sent.poll(100, TimeUnit.MILLISECONDS);
+			if (message != null && message.startsWith(prefix)) {
+				return message;
+			}
+		}
+		return fail("No " + prefix + " message");
+	}
+
+	private static WebSocketSession socket(String id, BlockingQueue<String> sent) throws Exception {
+		WebSocketSession ws = mock(WebSocketSession.class);
+		when(ws.getId()).thenReturn(id);
+		when(ws.isOpen()).thenReturn(true);
+		doAnswer(invocation -> sent.add(invocation.<TextMessage>getArgument(0).getPayload()))
+				.when(ws).sendMessage(any());
+		return ws;
+	}
+}
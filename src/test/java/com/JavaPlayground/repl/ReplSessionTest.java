@@ -0,0 +1,49 @@
+package com.JavaPlayground.repl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReplSessionTest {
+
+	private final StringBuffer output = new StringBuffer();
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+	private ReplSession session;
+
+	@BeforeEach
+	void start() throws Exception {
+		session = new ReplSession(output::append, 64);
+	}
+
+	@AfterEach
+	void stop() {
+		session.close();
+		scheduler.shutdownNow();
+	}
+
+	@Test
+	void stateSurvivesBetweenEvaluations() {
+		assertThat(session.evaluate("int x = 41;", scheduler, 10_000)).isEmpty();
+
+		assertThat(session.evaluate("x + 1", scheduler, 10_000)).isEmpty();
+		assertThat(output.toString()).contains("42");
+	}
+
+	@Test
+	void timeLimitCoversTheWholeEvaluation() {
+		long start = System.currentTimeMillis();
+
+		List<String> errors = session.evaluate("while (true);\nwhile (true);\nSystem.out.println(\"after\");",
+				scheduler, 1000);
+
+		assertThat(System.currentTimeMillis() - start).isLessThan(8000);
+		assertThat(errors).singleElement().asString().startsWith("Stopped after 1s");
+		assertThat(output.toString()).doesNotContain("after");
+	}
+}
@@ -0,0 +1,108 @@
+package com.JavaPlayground.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.regex.Pattern;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+import com.JavaPlayground.model.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+// Runs the real Flyway migrations on H2 in MySQL mode and counts the SQL statements
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:users;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector="
+				+ "com.JavaPlayground.repository.UserRepositoryTest$RowAliasToValues",
+		// H2 reports TEXT columns as VARCHAR, so ddl-auto=validate only makes sense against MySQL
+		"spring.jpa.hibernate.ddl-auto=none"
+})
+class UserRepositoryTest {
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void resetStatistics() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void loginUpsertIsOneStatementForNewAndReturningUsers() {
+		userRepository.upsertOAuthUser("ada@example.com", "Ada", "google", "123");
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+		statistics.clear();
+		userRepository.upsertOAuthUser("ada@example.com", "Ada Lovelace", "google", "123");
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+		entityManager.clear();
+		assertThat(userRepository.findAll())
+				.singleElement()
+				.extracting(User::getName)
+				.isEqualTo("Ada Lovelace");
+	}
+
+	@Test
+	void upsertKeepsTheFirstProviderId() {
+		userRepository.upsertOAuthUser("linus@example.com", "Linus", "github", "1");
+		userRepository.upsertOAuthUser("linus@example.com", "Linus", "github", "2");
+		entityManager.clear();
+
+		assertThat(userRepository.findByEmailAndProvider("linus@example.com", "github"))
+				.get()
+				.extracting(User::getProviderId)
+				.isEqualTo("1");
+	}
+
+	@Test
+	void authenticatedUserResolvesWithOneLookup() {
+		userRepository.upsertOAuthUser("grace@github.com", "grace", "github", "456");
+		entityManager.clear();
+		statistics.clear();
+
+		assertThat(userRepository.findByEmailAndProvider("grace@github.com", "github")).isPresent();
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	// H2 doesn't parse MySQL 8.0.19+ row aliases ("VALUES (...) AS new ... name = new.name"); rewrite
+	// them to the VALUES(name) form it does understand. One statement in, one statement out.
+	public static class RowAliasToValues implements StatementInspector {
+
+		private static final Pattern ALIAS = Pattern.compile("\\) AS new ON DUPLICATE KEY UPDATE");
+		private static final Pattern REFERENCE = Pattern.compile("\\bnew\\.(\\w+)");
+
+		@Override
+		public String inspect(String sql) {
+			if (!ALIAS.matcher(sql).find()) {
+				return sql;
+			}
+			String values = ALIAS.matcher(sql).replaceFirst(") ON DUPLICATE KEY UPDATE");
+			return REFERENCE.matcher(values).replaceAll("VALUES($1)");
+		}
+	}
+}
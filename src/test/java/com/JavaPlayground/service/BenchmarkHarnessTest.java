@@ -0,0 +1,109 @@
+package com.JavaPlayground.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.JavaPlayground.model.BenchmarkResponse;
+
+class BenchmarkHarnessTest {
+
+	@Test
+	void findsStaticNoArgBenchMethodsInDeclarationOrder() {
+		String code = "public class Main {\n"
+				+ "    static int benchSort() { return 1; }\n"
+				+ "    public static void benchLoop() { }\n"
+				+ "    public static final List<int[]> benchGeneric() { return null; }\n"
+				+ "    private static int benchHidden() { return 1; }\n"
+				+ "    int benchInstance() { return 1; }\n"
+				+ "    static int benchWithArgs(int n) { return n; }\n"
+				+ "    static int helper() { return benchSort(); }\n"
+				+ "}\n";
+
+		Map<String, Boolean> methods = BenchmarkHarness.findMethods(code);
+
+		assertThat(methods).containsExactly(Map.entry("benchSort", true), Map.entry("benchLoop", false),
+				Map.entry("benchGeneric", true));
+	}
+
+	@Test
+	void markersAreUniquePerRun() {
+		assertThat(BenchmarkHarness.newMarker()).startsWith("@@bench-").endsWith(" ")
+				.isNotEqualTo(BenchmarkHarness.newMarker());
+	}
+
+	@Test
+	void summarizesMeasurementsPerMethod() {
+		String m = BenchmarkHarness.newMarker();
+		String output = m + "config 40\n"
+				+ "Hello from setup\n"
+				+ m + "result 0 0 1000 2000000\n"
+				+ m + "result 0 1 1000 4000000\n"
+				+ m + "result 1 0 10 1000000\n"
+				+ m + "failed 1 1\n";
+
+		BenchmarkResponse response = BenchmarkHarness.summarize(output, List.of("benchA", "benchB"), m);
+
+		assertThat(response.getIterationMillis()).isEqualTo(40);
+		assertThat(response.getOutput()).isEqualTo("Hello from setup");
+		BenchmarkResponse.Result a = response.getResults().get(0);
+		assertThat(a.getMethod()).isEqualTo("benchA");
+		assertThat(a.getIterations()).isEqualTo(2);
+		assertThat(a.getMeanNanosPerOp()).isCloseTo(3000, within(1e-9));
+		assertThat(a.getThroughputOpsPerSecond()).isCloseTo(2000 * 1e9 / 6_000_000, within(1e-6));
+		// t(0.9995, df=1) * stddev / sqrt(n) = 636.619 * 1414.21 / 1.41421
+		assertThat(a.getErrorNanosPerOp()).isCloseTo(636_619, within(1.0));
+		BenchmarkResponse.Result b = response.getResults().get(1);
+		assertThat(b.getIterations()).isEqualTo(1);
+		assertThat(b.getMeanNanosPerOp()).isCloseTo(100_000, within(1e-9));
+		assertThat(b.getErrorNanosPerOp()).isZero();
+		assertThat(b.getFailedForks()).isEqualTo(1);
+	}
+
+	@Test
+	void linesWithAnotherMarkerAreUserOutput() {
+		String m = BenchmarkHarness.newMarker();
+		String output = "@@bench result 0 0 1 1\n"
+				+ BenchmarkHarness.newMarker() + "result 0 0 1 1\n"
+				+ "no newline" + m + "result 0 0 100 1000\n";
+
+		BenchmarkResponse response = BenchmarkHarness.summarize(output, List.of("benchA"), m);
+
+		assertThat(response.getResults().get(0).getIterations()).isEqualTo(1);
+		assertThat(response.getResults().get(0).getMeanNanosPerOp()).isCloseTo(10, within(1e-9));
+		assertThat(response.getOutput()).startsWith("@@bench result 0 0 1 1\n@@bench-").endsWith("\nno newline");
+	}
+
+	@Test
+	void methodWithoutSamplesHasNoScore() {
+		BenchmarkResponse response = BenchmarkHarness.summarize("", List.of("benchA"), BenchmarkHarness.newMarker());
+
+		assertThat(response.getResults()).singleElement()
+				.satisfies(r -> assertThat(r.getIterations()).isZero())
+				.satisfies(r -> assertThat(r.getMeanNanosPerOp()).isZero());
+	}
+
+	@Test
+	void generatedHarnessCompilesAgainstTheUserClass(@TempDir Path dir) throws Exception {
+		String code = "public class Main { static int benchSum() { int s = 0; for (int i = 0; i < 10; i++) s += i; return s; }"
+				+ " static void benchNothing() { } }";
+		String harness = BenchmarkHarness.generate("Main", BenchmarkHarness.findMethods(code), 2, 3, 5, 4000,
+				BenchmarkHarness.newMarker());
+		Files.writeString(dir.resolve("Main.java"), code);
+		Files.writeString(dir.resolve(BenchmarkHarness.CLASS_NAME + ".java"), harness);
+
+		int status = ToolProvider.getSystemJavaCompiler().run(null, null, null, "-d", dir.toString(),
+				dir.resolve("Main.java").toString(), dir.resolve(BenchmarkHarness.CLASS_NAME + ".java").toString());
+
+		assertThat(status).isZero();
+	}
+}
@@ -0,0 +1,139 @@
+package com.JavaPlayground.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.JavaPlayground.model.DiagnosticsResponse;
+import com.JavaPlayground.model.SourceDiagnostic;
+
+class DiagnosticsServiceTest {
+
+	private static final String CODE = "public class Main {\n"
+			+ "    public static void main(String[] args) {\n"
+			+ "        int total = 1 + missing;\n"
+			+ "        String s = 42;\n"
+			+ "    }\n"
+			+ "}\n";
+
+	private final DiagnosticsService service = new DiagnosticsService(4, 1_000_000, 500);
+
+	@Test
+	void errorsPointAtLineAndColumnOfTheOffendingCode() {
+		DiagnosticsResponse response = service.analyze(CODE, null);
+
+		assertThat(response.getError()).isNull();
+		assertThat(response.getDiagnostics()).hasSize(2);
+
+		SourceDiagnostic missing = response.getDiagnostics().get(0);
+		assertThat(missing.getSeverity()).isEqualTo("error");
+		assertThat(missing.getCode()).isEqualTo("compiler.err.cant.resolve.location");
+		assertThat(missing.getLine()).isEqualTo(3);
+		assertThat(missing.getColumn()).isEqualTo(25); // 1-based, where "missing" starts
+		assertThat(missing.getEndLine()).isEqualTo(3);
+		assertThat(missing.getEndColumn()).isEqualTo(32); // Just past it
+
+		SourceDiagnostic mismatch = response.getDiagnostics().get(1);
+		assertThat(mismatch.getCode()).isEqualTo("compiler.err.prob.found.req");
+		assertThat(mismatch.getLine()).isEqualTo(4);
+		assertThat(mismatch.getColumn()).isEqualTo(20);
+	}
+
+	@Test
+	void errorInANonMainPublicClassIsFoundToo() {
+		DiagnosticsResponse response = service.analyze("public class Shapes {\n\tvoid f() { return 1; }\n}\n", null);
+
+		assertThat(response.getDiagnostics()).extracting(SourceDiagnostic::getLine).containsExactly(2L);
+		// A tab is one column, like any other character
+		assertThat(response.getDiagnostics().get(0).getColumn()).isEqualTo(20);
+	}
+
+	@Test
+	void validCodeHasNoDiagnostics() {
+		DiagnosticsResponse response = service.analyze("public class Main { public static void main(String[] a) { } }", null);
+
+		assertThat(response.getDiagnostics()).isEmpty();
+		assertThat(response.isSuperseded()).isFalse();
+	}
+
+	@Test
+	void newerRequestFromTheSameEditorSupersedesTheOlderOne() throws Exception {
+		String slow = bigProgram(4000); // Takes far longer to check than starting the second request
+		service.analyze(slow, null); // Warm javac so the timings below are about checking, not loading
+
+		CompletableFuture<DiagnosticsResponse> older = CompletableFuture.supplyAsync(() -> service.analyze(slow, "editor-1"));
+		Thread.sleep(50);
+		DiagnosticsResponse newer = service.analyze(CODE, "editor-1");
+
+		assertThat(newer.isSuperseded()).isFalse();
+		assertThat(newer.getDiagnostics()).hasSize(2);
+		DiagnosticsResponse cancelled = older.get(30, TimeUnit.SECONDS);
+		assertThat(cancelled.isSuperseded()).isTrue();
+		assertThat(cancelled.getDiagnostics()).isEmpty();
+	}
+
+	@Test
+	void otherEditorsDoNotSupersedeEachOther() throws Exception {
+		CompletableFuture<DiagnosticsResponse> first = CompletableFuture.supplyAsync(() -> service.analyze(CODE, "editor-1"));
+		DiagnosticsResponse second = service.analyze(CODE, "editor-2");
+
+		assertThat(second.isSuperseded()).isFalse();
+		assertThat(first.get(30, TimeUnit.SECONDS).isSuperseded()).isFalse();
+	}
+
+	@Test
+	void answersBusyInsteadOfWaitingForeverForASlot() {
+		DiagnosticsService full = new DiagnosticsService(0, 1_000_000, 100); // No slot will ever free up
+
+		long start = System.nanoTime();
+		DiagnosticsResponse response = full.analyze(CODE, "editor-1");
+
+		assertThat(response.isBusy()).isTrue();
+		assertThat(response.getError()).isNotNull();
+		assertThat(response.getDiagnostics()).isEmpty();
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5000);
+	}
+
+	@Test
+	void oversizedCodeIsRefused() {
+		DiagnosticsResponse response = new DiagnosticsService(4, 100, 500).analyze(bigProgram(10), null);
+
+		assertThat(response.getError()).contains("too large");
+	}
+
+	// Repeatable latency check for an editor-sized program once javac is warm. The target is a p95
+	// under 100 ms, but timings on shared CI machines swing too much to fail the build on it, so the
+	// default bound only catches regressions of the "searched every jar on the classpath" kind
+	// (p95 of 250-600 ms). Compare the printed p95 with the target, or tighten the bound with
+	// -Ddiagnostics.p95-millis=100 on a quiet machine.
+	@Test
+	void warmChecksAreFast() {
+		for (int i = 0; i < 100; i++) {
+			service.analyze(CODE, null);
+		}
+		List<Long> millis = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			millis.add(service.analyze(CODE, null).getElapsedMillis());
+		}
+		Collections.sort(millis);
+		long p95 = millis.get((int) Math.ceil(millis.size() * 0.95) - 1);
+		System.out.println("Diagnostics p50 " + millis.get(millis.size() / 2) + " ms, p95 " + p95 + " ms");
+
+		assertThat(p95).isLessThan(Long.getLong("diagnostics.p95-millis", 250));
+	}
+
+	private static String bigProgram(int methods) {
+		StringBuilder code = new StringBuilder("public class Big {\n");
+		for (int i = 0; i < methods; i++) {
+			code.append("    static int m").append(i).append("(int x) { return x * ").append(i).append(" + m")
+					.append(Math.max(0, i - 1)).append("(x - 1); }\n");
+		}
+		return code.append("}\n").toString();
+	}
+}
@@ -0,0 +1,119 @@
+package com.JavaPlayground.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ExecutionResultCacheTest {
+
+	private static final String HELLO = "public class Main { public static void main(String[] a) { System.out.println(\"hi\"); } }";
+
+	private final ExecutionResultCache cache = new ExecutionResultCache(true, 1000, 8_388_608, 2000);
+
+	@Test
+	void keyDependsOnCodeAndInput() {
+		assertThat(cache.keyFor(HELLO, "1")).isEqualTo(cache.keyFor(HELLO, "1"));
+		assertThat(cache.keyFor(HELLO, "1")).isNotEqualTo(cache.keyFor(HELLO, "2"));
+		assertThat(cache.keyFor(HELLO, null)).isEqualTo(cache.keyFor(HELLO, ""));
+		assertThat(cache.keyFor(HELLO + " ", "1")).isNotEqualTo(cache.keyFor(HELLO, "1"));
+	}
+
+	@Test
+	void disabledCacheHasNoKeys() {
+		assertThat(new ExecutionResultCache(false, 1000, 8_388_608, 2000).keyFor(HELLO, "")).isNull();
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+			"new Random().nextInt(10)",
+			"Math.random()",
+			"System.currentTimeMillis()",
+			"LocalDateTime.now()",
+			"UUID.randomUUID()",
+			"Thread.currentThread().getName()",
+			"ProcessHandle.current().pid()",
+			"Runtime.getRuntime().freeMemory()",
+			"new Object().hashCode()",
+			"System.identityHashCode(x)",
+			"System.out.println(new Object())",
+			"list.parallelStream().forEach(System.out::println)",
+			"System.getenv(\"HOME\")" })
+	void nonDeterministicCodeIsNeverCached(String statement) {
+		String code = "public class Main { public static void main(String[] a) { " + statement + "; } }";
+
+		assertThat(cache.keyFor(code, "")).isNull();
+	}
+
+	@Test
+	void runtimeExceptionIsNotMistakenForRuntime() {
+		String code = "public class Main { public static void main(String[] a) { throw new RuntimeException(); } }";
+
+		assertThat(cache.keyFor(code, "")).isNotNull();
+	}
+
+	@Test
+	void outputIsReplayedOnlyAfterTwoIdenticalRuns() {
+		String key = cache.keyFor(HELLO, "");
+
+		cache.put(key, "hi\n", 100);
+		assertThat(cache.get(key)).isNull();
+
+		cache.put(key, "hi\n", 100);
+		assertThat(cache.get(key)).isEqualTo("hi\n");
+	}
+
+	@Test
+	void programWhoseRunsDifferIsNeverReplayed() {
+		String key = cache.keyFor("public class Main { public static void main(String[] a) { "
+				+ "System.out.println(new int[3]); } }", "");
+
+		cache.put(key, "[I@1b6d3586\n", 100);
+		cache.put(key, "[I@4554617c\n", 100);
+		cache.put(key, "[I@4554617c\n", 100);
+		cache.put(key, "[I@4554617c\n", 100);
+
+		assertThat(cache.get(key)).isNull();
+	}
+
+	@Test
+	void slowRunsAreNotStored() {
+		String key = cache.keyFor(HELLO, "");
+
+		cache.put(key, "hi\n", 2500);
+		cache.put(key, "hi\n", 2500);
+
+		assertThat(cache.get(key)).isNull();
+	}
+
+	@Test
+	void leastRecentlyUsedEntryIsEvictedFirst() {
+		ExecutionResultCache small = new ExecutionResultCache(true, 2, 8_388_608, 2000);
+		confirm(small, "a", "A");
+		confirm(small, "b", "B");
+		small.get("a"); // Now "b" is the least recently used
+
+		confirm(small, "c", "C");
+
+		assertThat(small.get("a")).isEqualTo("A");
+		assertThat(small.get("b")).isNull();
+		assertThat(small.get("c")).isEqualTo("C");
+	}
+
+	@Test
+	void entriesAreEvictedToStayWithinTheOutputBudget() {
+		ExecutionResultCache small = new ExecutionResultCache(true, 1000, 10, 2000);
+		confirm(small, "a", "12345678");
+
+		confirm(small, "b", "123456");
+
+		assertThat(small.get("a")).isNull();
+		assertThat(small.get("b")).isEqualTo("123456");
+	}
+
+	private static void confirm(ExecutionResultCache cache, String key, String output) {
+		cache.put(key, output, 10);
+		cache.put(key, output, 10);
+	}
+}
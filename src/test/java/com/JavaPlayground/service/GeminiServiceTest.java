@@ -0,0 +1,131 @@
+package com.JavaPlayground.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// The AI provider replaced by a local HTTP server that records what it was sent
+class GeminiServiceTest {
+
+	private static final String REPLY = "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"Looks fine\"}]}}]}";
+
+	private static final String PROGRAM = """
+			import java.util.*;
+
+			/**
+			 * Reads a number and prints its square.
+			 */
+			public class Main {
+
+			    // Entry point
+			    public static void main(String[] args) {
+			        Scanner sc = new Scanner(System.in);
+			        int n = sc.nextInt();
+			        System.out.println("Square // of n: " + square(n));
+			    }
+
+			    static int square(int n) {
+			        return n * n;
+			    }
+
+			    static String unusedReport(List<Integer> values) {
+			        StringBuilder sb = new StringBuilder();
+			        for (int v : values) {
+			            sb.append("value=").append(v).append(", squared=").append(v * v).append('\\n');
+			        }
+			        return sb.toString();
+			    }
+			}
+			""";
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final List<String> requests = new CopyOnWriteArrayList<>(); // Filled on the server's thread
+	private HttpServer server;
+	private volatile int status = 200;
+
+	@BeforeEach
+	void startStub() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/generate", this::answer);
+		server.start();
+	}
+
+	@AfterEach
+	void stopStub() {
+		server.stop(0);
+	}
+
+	@Test
+	void sendsMinifiedCodeAndRecordsPromptSize() {
+		GeminiService gemini = service(4000);
+
+		assertThat(gemini.generateHints(PROGRAM)).isEqualTo("Looks fine");
+
+		assertThat(requests).hasSize(1);
+		String sent = requests.get(0);
+		assertThat(sent).doesNotContain("Entry point").doesNotContain("Reads a number");
+		assertThat(sent).contains("Square // of n: "); // Inside a string literal, so not a comment
+		assertThat(sent).contains("unusedReport"); // Within budget: nothing trimmed
+		assertThat(registry.get("playground.ai.request").tag("kind", "hints").tag("outcome", "success").timer()
+				.count()).isEqualTo(1);
+		double sentTokens = registry.get("playground.ai.prompt.tokens").summary().totalAmount();
+		double rawTokens = registry.get("playground.ai.prompt.raw.tokens").summary().totalAmount();
+		assertThat(sentTokens).isPositive().isLessThan(rawTokens);
+		assertThat(registry.find("playground.ai.prompt.reduced").counter()).isNull();
+	}
+
+	@Test
+	void overBudgetCodeKeepsMainAndWhatItCalls() {
+		GeminiService gemini = service(170); // Minified ~210 tokens, ~130 once unusedReport() is dropped
+
+		gemini.generateTestCases(PROGRAM);
+
+		String sent = requests.get(0);
+		assertThat(sent).contains("static int square(int n)");
+		assertThat(sent).doesNotContain("StringBuilder");
+		assertThat(sent).contains("unusedReport() not shown: not reachable from main");
+		assertThat(registry.get("playground.ai.prompt.reduced").tag("how", "trimmed").counter().count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void providerErrorIsTimedAsError() {
+		status = 500;
+		GeminiService gemini = service(4000);
+
+		assertThat(gemini.generateHints(PROGRAM)).startsWith("Error calling Gemini API");
+		assertThat(registry.get("playground.ai.request").tag("outcome", "error").timer().count()).isEqualTo(1);
+	}
+
+	private GeminiService service(int maxCodeTokens) {
+		GeminiService gemini = new GeminiService(registry, maxCodeTokens);
+		ReflectionTestUtils.setField(gemini, "apiUrl", "http://127.0.0.1:" + server.getAddress().getPort() + "/generate");
+		ReflectionTestUtils.setField(gemini, "apiKey", "test-key");
+		return gemini;
+	}
+
+	private void answer(HttpExchange exchange) throws IOException {
+		requests.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+		byte[] body = (status == 200 ? REPLY : "{}").getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package com.JavaPlayground.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class JavaPromptCompactorTest {
+
+	// An uncalled method big enough that dropping it is what brings the code under budget
+	private static final String NEVER_CALLED = "    static void neverCalled() {\n"
+			+ "        System.out.println(\"a long line that nobody ever reaches\");\n".repeat(20)
+			+ "    }\n";
+
+	@Test
+	void minifyKeepsLiteralsIntact() {
+		String code = "class A {\n"
+				+ "    String url = \"http://x  /* y */\"; // trailing\n"
+				+ "    char slash = '/'; /* block\n comment */ String block = \"\"\"\n"
+				+ "        keep   this // too\n"
+				+ "        \"\"\";\n"
+				+ "}\n";
+
+		assertThat(JavaPromptCompactor.minify(code)).isEqualTo("class A {\n"
+				+ "String url = \"http://x  /* y */\";\n"
+				+ "char slash = '/';\n"
+				+ "String block = \"\"\"\n"
+				+ "        keep   this // too\n"
+				+ "        \"\"\";\n"
+				+ "}");
+	}
+
+	@Test
+	void constructorsAndOverridesSurviveTrimming() {
+		String code = "public class Main {\n"
+				+ "    enum Level { LOW(1), HIGH(2); Level(int v) { System.out.println(v); } }\n"
+				+ "    public static void main(String[] args) { System.out.println(new Main()); }\n"
+				+ "    @Override public String toString() { return describe(); }\n"
+				+ "    String describe() { return \"main\"; }\n"
+				+ NEVER_CALLED
+				+ "}\n";
+		// Well over budget with neverCalled(), well under without it: only trimming can be at play
+		assertThat(JavaPromptCompactor.estimateTokens(JavaPromptCompactor.minify(code))).isGreaterThan(2 * 200);
+
+		JavaPromptCompactor.Result result = JavaPromptCompactor.compact(code, 200);
+
+		assertThat(result.isTrimmed()).isTrue();
+		assertThat(result.isTruncated()).isFalse();
+		assertThat(result.getTokens()).isLessThan(200 - 50);
+		assertThat(result.getCode())
+				.contains("Level(int v)", "toString()", "String describe()", "neverCalled() not shown")
+				.doesNotContain("nobody ever reaches");
+	}
+
+	@Test
+	void methodsCalledFromInitializersSurviveTrimming() {
+		String code = "public class Main {\n"
+				+ "    static int limit = compute();\n"
+				+ "    static { warmUp(); }\n"
+				+ "    private final Runnable task = Main::tick;\n"
+				+ "    { register(); }\n"
+				+ "    public static void main(String[] args) { System.out.println(limit); }\n"
+				+ "    static int compute() { return 42; }\n"
+				+ "    static void warmUp() { }\n"
+				+ "    static void tick() { }\n"
+				+ "    void register() { }\n"
+				+ NEVER_CALLED
+				+ "}\n";
+
+		JavaPromptCompactor.Result result = JavaPromptCompactor.compact(code, 150);
+
+		assertThat(result.isTrimmed()).isTrue();
+		assertThat(result.getCode())
+				.contains("static int compute()", "static void warmUp()", "static void tick()", "void register()")
+				.doesNotContain("nobody ever reaches");
+	}
+
+	@Test
+	void lineNumbersMatchTheOriginal() {
+		String code = "// Header comment\n"
+				+ "public class Main {\n"
+				+ "\n"
+				+ "    /**\n"
+				+ "     * Javadoc.\n"
+				+ "     */\n"
+				+ NEVER_CALLED
+				+ "    public static void main(String[] args) {\n"
+				+ "        System.out.println(1 / 0);\n"
+				+ "    }\n"
+				+ "}\n";
+
+		JavaPromptCompactor.Result result = JavaPromptCompactor.compact(code, 150);
+
+		assertThat(result.isTrimmed()).isTrue();
+		assertThat(result.isTruncated()).isFalse();
+		String[] original = code.split("\n", -1);
+		String[] sent = result.getCode().split("\n", -1);
+		assertThat(lineOf(sent, "1 / 0")).isEqualTo(lineOf(original, "1 / 0")).isEqualTo(30);
+	}
+
+	@Test
+	void codeWithoutMainIsCutToBudget() {
+		StringBuilder code = new StringBuilder("class Util {\n");
+		for (int i = 0; i < 200; i++) {
+			code.append("    static int f").append(i).append("() { return ").append(i).append("; }\n");
+		}
+		code.append("}\n");
+
+		JavaPromptCompactor.Result result = JavaPromptCompactor.compact(code.toString(), 100);
+
+		assertThat(result.isTrimmed()).isFalse();
+		assertThat(result.isTruncated()).isTrue();
+		assertThat(result.getTokens()).isLessThanOrEqualTo(100);
+		assertThat(result.getCode()).startsWith("class Util {\nstatic int f0()").endsWith("prompt size limit)");
+	}
+
+	private static int lineOf(String[] lines, String text) {
+		for (int i = 0; i < lines.length; i++) {
+			if (lines[i].contains(text)) {
+				return i + 1;
+			}
+		}
+		return -1;
+	}
+}
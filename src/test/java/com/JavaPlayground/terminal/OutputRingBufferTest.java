@@ -0,0 +1,44 @@
+package com.JavaPlayground.terminal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class OutputRingBufferTest {
+
+	@Test
+	void replaysFromAnyRetainedOffset() {
+		OutputRingBuffer buffer = new OutputRingBuffer(8);
+		buffer.append("abc");
+		buffer.append("def");
+
+		assertThat(buffer.readFrom(0)).isEqualTo("abcdef");
+		assertThat(buffer.readFrom(4)).isEqualTo("ef");
+		assertThat(buffer.readFrom(6)).isEmpty();
+		assertThat(buffer.readFrom(100)).isEmpty();
+	}
+
+	@Test
+	void resumeAfterWrapAroundStartsAtTheOldestRetainedCharacter() {
+		OutputRingBuffer buffer = new OutputRingBuffer(8);
+		buffer.append("0123456");
+		buffer.append("789ABC"); // 13 characters through an 8-character buffer
+
+		assertThat(buffer.getStartOffset()).isEqualTo(5);
+		assertThat(buffer.getEndOffset()).isEqualTo(13);
+		assertThat(buffer.readFrom(0)).isEqualTo("56789ABC"); // Too far behind: whatever is left
+		assertThat(buffer.readFrom(7)).isEqualTo("789ABC"); // Still retained, straddles the wrap point
+		assertThat(buffer.readFrom(12)).isEqualTo("C");
+	}
+
+	@Test
+	void chunkLargerThanTheBufferKeepsItsTail() {
+		OutputRingBuffer buffer = new OutputRingBuffer(4);
+		buffer.append("x");
+		buffer.append("abcdefghij");
+
+		assertThat(buffer.getEndOffset()).isEqualTo(11);
+		assertThat(buffer.getStartOffset()).isEqualTo(7);
+		assertThat(buffer.readFrom(0)).isEqualTo("ghij");
+	}
+}
@@ -0,0 +1,129 @@
+package com.JavaPlayground.terminal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.JavaPlayground.execution.ExecutionHandle;
+
+class TerminalSessionRegistryTest {
+
+	// No grace period, and an 8-character buffer so a few chunks wrap it around
+	private final TerminalSessionRegistry registry = new TerminalSessionRegistry(0, 8);
+
+	@AfterEach
+	void shutdown() {
+		registry.shutdown();
+	}
+
+	@Test
+	void resumeAfterWrapAroundReplaysTheRetainedTail() throws Exception {
+		List<String> first = new ArrayList<>();
+		WebSocketSession ws = socket("ws-1", first);
+		TerminalSession session = registry.create(ws);
+		session.appendOutput("0123456");
+		registry.detach(ws);
+		session.appendOutput("789ABC"); // Arrives while no client is attached
+		session.finish("EXIT:Program finished with exit code 0");
+
+		List<String> second = new ArrayList<>();
+		assertThat(registry.resume(session.getToken(), socket("ws-2", second), 3)).isTrue();
+
+		assertThat(first).containsExactly("SESSION:" + session.getToken(), "OUTPUT:0123456");
+		// Offset 3 was overwritten: the replay starts at 5 and says so
+		assertThat(second).containsExactly("RESUMED:5", "OUTPUT:56789ABC", "EXIT:Program finished with exit code 0");
+	}
+
+	@Test
+	void expiredSessionCannotBeResumedAndItsProgramIsKilled() throws Exception {
+		WebSocketSession ws = socket("ws-1", new ArrayList<>());
+		TerminalSession session = registry.create(ws);
+		ExecutionHandle execution = mock(ExecutionHandle.class);
+		session.setExecution(execution);
+		registry.detach(ws);
+		Thread.sleep(5); // Past the zero-second grace period
+
+		registry.reapExpired();
+
+		verify(execution).cancel();
+		assertThat(session.isReleased()).isTrue();
+		assertThat(registry.resume(session.getToken(), socket("ws-2", new ArrayList<>()), 0)).isFalse();
+	}
+
+	@Test
+	void attachedSessionIsNotReaped() throws Exception {
+		TerminalSession session = registry.create(socket("ws-1", new ArrayList<>()));
+		Thread.sleep(5);
+
+		registry.reapExpired();
+
+		assertThat(session.isReleased()).isFalse();
+	}
+
+	@Test
+	void expiredSessionRefusesAnAttachThatLostTheRace() throws Exception {
+		// The resume looked the session up just before the reaper removed it
+		TerminalSession session = new TerminalSession("token", 8);
+		Thread.sleep(5);
+		assertThat(session.expireIfDetachedLongerThan(0)).isTrue();
+
+		List<String> sent = new ArrayList<>();
+		assertThat(session.attach(socket("ws-1", sent), 0)).isFalse();
+		assertThat(sent).isEmpty();
+	}
+
+	@Test
+	void resumeOnASocketThatHasASessionReplacesIt() throws Exception {
+		TerminalSession earlier = registry.create(socket("ws-1", new ArrayList<>()));
+		registry.detach(socket("ws-1", new ArrayList<>()));
+		earlier.appendOutput("old");
+
+		List<String> sent = new ArrayList<>();
+		WebSocketSession ws = socket("ws-2", sent);
+		TerminalSession current = registry.create(ws);
+		ExecutionHandle execution = mock(ExecutionHandle.class);
+		current.setExecution(execution);
+
+		assertThat(registry.resume(earlier.getToken(), ws, 0)).isTrue();
+
+		verify(execution).cancel();
+		assertThat(current.isReleased()).isTrue();
+		assertThat(registry.forSocket(ws)).isSameAs(earlier);
+		current.appendOutput("stale"); // A late write from the replaced program goes nowhere
+		assertThat(sent).containsExactly("SESSION:" + current.getToken(), "RESUMED:0", "OUTPUT:old");
+	}
+
+	@Test
+	void resumingTheSocketsOwnSessionKeepsItRunning() throws Exception {
+		List<String> sent = new ArrayList<>();
+		WebSocketSession ws = socket("ws-1", sent);
+		TerminalSession session = registry.create(ws);
+		session.appendOutput("abc");
+
+		assertThat(registry.resume(session.getToken(), ws, 1)).isTrue();
+
+		assertThat(session.isReleased()).isFalse();
+		assertThat(registry.forSocket(ws)).isSameAs(session);
+		assertThat(sent).containsExactly("SESSION:" + session.getToken(), "OUTPUT:abc", "RESUMED:1", "OUTPUT:bc");
+	}
+
+	private static WebSocketSession socket(String id, List<String> sent) throws Exception {
+		WebSocketSession ws = mock(WebSocketSession.class);
+		when(ws.getId()).thenReturn(id);
+		when(ws.isOpen()).thenReturn(true);
+		doAnswer(invocation -> sent.add(invocation.<TextMessage>getArgument(0).getPayload()))
+				.when(ws).sendMessage(any());
+		return ws;
+	}
+}
@@ -0,0 +1,2 @@
+// Test fixture for StaticResourceConfigTest
+console.log('fixture');